@@ -0,0 +1,95 @@
+import java.util.*;
+
+// Default-package side of bench.Fixture: builds a synthetic Graph and forwards to the real code
+public class BenchmarkFixture implements bench.Fixture {
+    private static final int SAMPLES = 64;
+
+    private final Graph graph;
+    private final BFSRouter tracingRouter;
+    private final BFSRouter compactRouter;
+    private final ParallelBFS parallel;
+    private final String[] samples;
+
+    public BenchmarkFixture(String shape, int size, long seed) {
+        this.graph = GraphGenerators.generate(shape, size, seed);
+        this.tracingRouter = new BFSRouter(graph);
+        this.compactRouter = new BFSRouter(graph.snapshot());
+        this.parallel = new ParallelBFS();
+        Random random = new Random(seed);
+        int n = graph.getNodeCount();
+        this.samples = new String[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            samples[i] = "n" + random.nextInt(n);
+        }
+    }
+
+    @Override
+    public String[] sampleNodes() {
+        return samples;
+    }
+
+    @Override
+    public int nodeCount() {
+        return graph.getNodeCount();
+    }
+
+    @Override
+    public List<String> runBFS(String source, String destination) {
+        return tracingRouter.runBFS(source, destination);
+    }
+
+    @Override
+    public List<String> findPath(String source, String destination) {
+        return compactRouter.findPath(source, destination);
+    }
+
+    @Override
+    public List<String> findPathBidirectional(String source, String destination) {
+        return compactRouter.findPathBidirectional(source, destination);
+    }
+
+    @Override
+    public int[] distancesFrom(String source) {
+        return compactRouter.distancesFrom(source);
+    }
+
+    @Override
+    public int[] topDownDistancesFrom(String source) {
+        CompactGraph snapshot = graph.snapshot();
+        return DirectionOptimizingBFS.topDownDistancesFrom(snapshot, snapshot.idOf(source));
+    }
+
+    @Override
+    public int[] parallelDistancesFrom(String source) {
+        return parallel.distancesFrom(graph.snapshot(), source);
+    }
+
+    @Override
+    public int scanNeighbors(String node) {
+        int count = 0;
+        for (String ignored : graph.getNeighbors(node)) {
+            count++;
+        }
+        return count;
+    }
+
+    @Override
+    public int countAllEdges() {
+        return graph.getAllEdges().size();
+    }
+
+    @Override
+    public void removeAndRestore(String node) {
+        List<String> neighbors = new ArrayList<>(graph.getNeighbors(node));
+        graph.removeNode(node);
+        graph.addNode(node);
+        for (String neighbor : neighbors) {
+            graph.addEdge(node, neighbor);
+        }
+    }
+
+    @Override
+    public void close() {
+        parallel.close();
+    }
+}
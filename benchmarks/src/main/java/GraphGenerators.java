@@ -0,0 +1,91 @@
+import java.util.*;
+
+// Synthetic topologies for the benchmarks; node names are "n0" .. "n{size-1}"
+public final class GraphGenerators {
+    private GraphGenerators() {
+    }
+
+    // shape: "erdos-renyi", "barabasi-albert", "grid" or "chain"; size is the node count
+    public static Graph generate(String shape, int size, long seed) {
+        switch (shape) {
+            case "erdos-renyi":
+                return erdosRenyi(size, 8, seed);
+            case "barabasi-albert":
+                return barabasiAlbert(size, 4, seed);
+            case "grid":
+                return grid((int) Math.ceil(Math.sqrt(size)));
+            case "chain":
+                return chain(size);
+            default:
+                throw new IllegalArgumentException("Unknown graph shape: " + shape);
+        }
+    }
+
+    // G(n, m) random graph with the given average degree
+    public static Graph erdosRenyi(int n, int averageDegree, long seed) {
+        Graph graph = nodes(n);
+        Random random = new Random(seed);
+        long edges = (long) n * averageDegree / 2;
+        for (long i = 0; i < edges; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if (from != to) {
+                graph.addEdge("n" + from, "n" + to);
+            }
+        }
+        return graph;
+    }
+
+    // Preferential attachment: every new node links to m existing nodes picked by degree
+    public static Graph barabasiAlbert(int n, int m, long seed) {
+        Graph graph = nodes(n);
+        Random random = new Random(seed);
+        int[] endpoints = new int[2 * n * m];
+        int count = 0;
+        for (int v = 1; v < n; v++) {
+            for (int k = 0; k < Math.min(m, v); k++) {
+                int u = count == 0 ? 0 : endpoints[random.nextInt(count)];
+                if (u != v && !graph.isConnected("n" + u, "n" + v)) {
+                    graph.addEdge("n" + u, "n" + v);
+                    endpoints[count++] = u;
+                    endpoints[count++] = v;
+                }
+            }
+        }
+        return graph;
+    }
+
+    // side x side 4-neighbor lattice
+    public static Graph grid(int side) {
+        Graph graph = nodes(side * side);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                int i = y * side + x;
+                if (x + 1 < side) {
+                    graph.addEdge("n" + i, "n" + (i + 1));
+                }
+                if (y + 1 < side) {
+                    graph.addEdge("n" + i, "n" + (i + side));
+                }
+            }
+        }
+        return graph;
+    }
+
+    // Single path n0 - n1 - ... - n{n-1}, the worst case for BFS depth
+    public static Graph chain(int n) {
+        Graph graph = nodes(n);
+        for (int i = 1; i < n; i++) {
+            graph.addEdge("n" + (i - 1), "n" + i);
+        }
+        return graph;
+    }
+
+    private static Graph nodes(int n) {
+        Graph graph = new Graph();
+        for (int i = 0; i < n; i++) {
+            graph.addNode("n" + i);
+        }
+        return graph;
+    }
+}
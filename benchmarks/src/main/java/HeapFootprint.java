@@ -0,0 +1,49 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+
+// Heap retained by a Graph and by its CompactGraph snapshot, the numbers behind the README table
+// Run from benchmarks/ after `mvn package`:
+//   java -Xmx4g -cp target/benchmarks.jar HeapFootprint [nodes] [averageDegree] [seed]
+// Each figure is used heap after full GCs with only that structure reachable, minus the empty baseline.
+public final class HeapFootprint {
+    private static final long MB = 1 << 20;
+
+    private HeapFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int nodes = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int averageDegree = args.length > 1 ? Integer.parseInt(args[1]) : 16;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+
+        long baseline = usedAfterGc();
+        Graph graph = GraphGenerators.erdosRenyi(nodes, averageDegree, seed);
+        long graphBytes = usedAfterGc() - baseline;
+
+        CompactGraph compact = graph.snapshot();
+        graph = null; // Only the snapshot stays reachable for the next measurement
+        long compactBytes = usedAfterGc() - baseline;
+        long csrBytes = 4L * (compact.offsets.length + compact.targets.length);
+
+        System.out.printf("%,d nodes, %,d undirected edges (JDK %s)%n",
+                compact.getNodeCount(), compact.getEdgeCount(), System.getProperty("java.specification.version"));
+        System.out.printf("Graph        %,8d MB%n", graphBytes / MB);
+        System.out.printf("CompactGraph %,8d MB%n", compactBytes / MB);
+        System.out.printf("  offsets + targets %,d MB%n", csrBytes / MB);
+    }
+
+    // Helper: Used heap once repeated full collections stop freeing anything
+    private static long usedAfterGc() {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long used = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            System.gc();
+            long now = memory.getHeapMemoryUsage().getUsed();
+            if (now >= used) {
+                break;
+            }
+            used = now;
+        }
+        return used;
+    }
+}
@@ -0,0 +1,53 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Single-source all-distances sweeps: direction-optimizing vs plain top-down BFS
+// Bottom-up steps pay off on low-diameter graphs whose middle levels hold most of the nodes (barabasi-albert,
+// scale-free); a grid has a long, narrow frontier, so the switch fires late if at all and both should be close.
+// Run with: java -jar target/benchmarks.jar DistancesBenchmark
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DistancesBenchmark {
+    @Param({"barabasi-albert", "grid"})
+    public String shape;
+
+    @Param({"100000", "1000000"})
+    public int size;
+
+    private Fixture fixture;
+    private String[] nodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = Fixture.create(shape, size, 42);
+        nodes = fixture.sampleNodes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    private String nextNode() {
+        next = (next + 1) % nodes.length;
+        return nodes[next];
+    }
+
+    @Benchmark
+    public int[] topDown() {
+        return fixture.topDownDistancesFrom(nextNode());
+    }
+
+    @Benchmark
+    public int[] directionOptimizing() {
+        return fixture.distancesFrom(nextNode());
+    }
+}
@@ -0,0 +1,48 @@
+package bench;
+
+import java.util.List;
+
+// Operations the benchmarks measure
+// JMH refuses benchmark classes in the default package, and named packages cannot reference the
+// application's default-package classes, so the benchmarks reach them through this interface. The
+// implementation (BenchmarkFixture, default package) is loaded reflectively once per trial; calls
+// in the measured loop are ordinary monomorphic interface calls.
+public interface Fixture {
+    // Node names used as query endpoints, spread over the whole graph
+    String[] sampleNodes();
+
+    int nodeCount();
+
+    List<String> runBFS(String source, String destination);
+
+    List<String> findPath(String source, String destination);
+
+    List<String> findPathBidirectional(String source, String destination);
+
+    int[] distancesFrom(String source);
+
+    // Plain top-down sweep, the baseline for distancesFrom's direction-optimizing one
+    int[] topDownDistancesFrom(String source);
+
+    int[] parallelDistancesFrom(String source);
+
+    // Iterates the neighbor set and returns its size
+    int scanNeighbors(String node);
+
+    int countAllEdges();
+
+    // Removes the node, then puts it back with its old edges so the graph stays the same size
+    void removeAndRestore(String node);
+
+    void close();
+
+    static Fixture create(String shape, int size, long seed) {
+        try {
+            return (Fixture) Class.forName("BenchmarkFixture")
+                    .getConstructor(String.class, int.class, long.class)
+                    .newInstance(shape, size, seed);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create benchmark fixture.", e);
+        }
+    }
+}
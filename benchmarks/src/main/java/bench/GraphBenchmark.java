@@ -0,0 +1,57 @@
+package bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Graph structure operations: neighbor scans, edge enumeration and node removal
+// Run with: java -jar target/benchmarks.jar GraphBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class GraphBenchmark {
+    @Param({"erdos-renyi", "barabasi-albert", "grid", "chain"})
+    public String shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Fixture fixture;
+    private String[] nodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = Fixture.create(shape, size, 42);
+        nodes = fixture.sampleNodes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    private String nextNode() {
+        next = (next + 1) % nodes.length;
+        return nodes[next];
+    }
+
+    @Benchmark
+    public int getNeighbors() {
+        return fixture.scanNeighbors(nextNode());
+    }
+
+    @Benchmark
+    public int getAllEdges() {
+        return fixture.countAllEdges();
+    }
+
+    // Includes re-adding the node and its edges, so compare across shapes and sizes, not in isolation
+    @Benchmark
+    public void removeNode() {
+        fixture.removeAndRestore(nextNode());
+    }
+}
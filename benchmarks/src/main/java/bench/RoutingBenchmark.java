@@ -0,0 +1,67 @@
+package bench;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.*;
+
+// Point-to-point and single-source routing over generated topologies
+// Run with: java -jar target/benchmarks.jar RoutingBenchmark -prof gc
+@State(Scope.Thread)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RoutingBenchmark {
+    @Param({"erdos-renyi", "barabasi-albert", "grid", "chain"})
+    public String shape;
+
+    @Param({"1000", "100000"})
+    public int size;
+
+    private Fixture fixture;
+    private String[] nodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fixture = Fixture.create(shape, size, 42);
+        nodes = fixture.sampleNodes();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    private String nextNode() {
+        next = (next + 1) % nodes.length;
+        return nodes[next];
+    }
+
+    @Benchmark
+    public List<String> runBFSTraced() {
+        return fixture.runBFS(nextNode(), nextNode());
+    }
+
+    @Benchmark
+    public List<String> findPath() {
+        return fixture.findPath(nextNode(), nextNode());
+    }
+
+    @Benchmark
+    public List<String> findPathBidirectional() {
+        return fixture.findPathBidirectional(nextNode(), nextNode());
+    }
+
+    @Benchmark
+    public int[] distancesFrom() {
+        return fixture.distancesFrom(nextNode());
+    }
+
+    @Benchmark
+    public int[] parallelDistancesFrom() {
+        return fixture.parallelDistancesFrom(nextNode());
+    }
+}
@@ -3,87 +3,335 @@ import java.util.*;
 // Feature 4: Implements the BFS routing algorithm
 // Feature 8: Logs routing decisions step by step
 // Feature 9: Handles edge cases like invalid nodes, same source/destination, or no path
-public class BFSRouter {
-    private final Graph graph;                   // Graph reference
-    private final List<String> logs;             // Feature 8: Logs of each step
-    private final List<String> visitedOrder;     // Used for GUI animation (Feature 6)
+public class BFSRouter implements Router {
+    private final Graph graph;                   // Graph reference (null when routing on a CompactGraph)
+    private final CompactGraph compact;          // Int-indexed CSR snapshot (null when routing on a Graph)
+    private final TraceBuffer trace;             // Feature 8: Structured events of the last runBFS
+
+    // Last runBFS call, kept so logs and visited order can be rendered on demand
+    private CompactGraph lastGraph;
+    private String lastSource;
+    private String lastDestination;
+    private Outcome lastOutcome;
+    private List<String> lastPath;
+    private List<String> logs;                   // Feature 8: Rendered on first getLogs() call
+    private List<String> visitedOrder;           // Used for GUI animation (Feature 6), rendered on demand
+
+    private enum Outcome { INVALID, SAME_NODE, FOUND, NO_PATH }
+
+    private volatile RoutingMetrics metrics;     // null = instrumentation off
 
     public BFSRouter(Graph graph) {
         this.graph = graph;
-        this.logs = new ArrayList<>();
-        this.visitedOrder = new ArrayList<>();
+        this.compact = null;
+        this.trace = new TraceBuffer();
+    }
+
+    // Routes on an immutable CSR snapshot: the traversal runs on int ids with no boxing or String hashing
+    public BFSRouter(CompactGraph compact) {
+        this(compact, new TraceBuffer());
+    }
+
+    // Same, keeping only the last traceEvents events of each runBFS for getLogs() (e.g. for a log view)
+    public BFSRouter(CompactGraph compact, int traceEvents) {
+        this(compact, new TraceBuffer(traceEvents));
+    }
+
+    private BFSRouter(CompactGraph compact, TraceBuffer trace) {
+        this.graph = null;
+        this.compact = compact;
+        this.trace = trace;
+    }
+
+    // Record query latency, visited nodes, scanned edges and frontier sizes; null turns metrics off
+    public void setMetrics(RoutingMetrics metrics) {
+        this.metrics = metrics;
     }
 
     // Feature 4: BFS traversal to find shortest path
     // Note: BFS works on unweighted graphs. It treats every edge as equal-cost.
+    // Records the traversal into the trace buffer; getLogs() and getVisitedOrder() turn it into text.
     public List<String> runBFS(String source, String destination) {
-        logs.clear();         // Clear previous run logs
-        visitedOrder.clear(); // Clear visited history
+        return runBFS(source, destination, TraceListener.NONE);
+    }
+
+    // Same as runBFS, also forwarding every traversal event to observer while the search runs
+    // (e.g. to publish progress from a background thread)
+    public List<String> runBFS(String source, String destination, TraceListener observer) {
+        trace.clear();        // Clear previous run events
+        logs = null;
+        visitedOrder = null;
+        lastGraph = compact != null ? compact : graph.snapshot();
+        lastSource = source;
+        lastDestination = destination;
+        lastPath = null;
+
+        int src = lastGraph.idOf(source);
+        int dst = lastGraph.idOf(destination);
 
         // Feature 9: Edge case - invalid nodes
-        if (!graph.hasNode(source) || !graph.hasNode(destination)) {
-            logs.add("Invalid source or destination node.");
+        if (src < 0 || dst < 0) {
+            lastOutcome = Outcome.INVALID;
             return null;
         }
 
         // Feature 9: Edge case - same source and destination
-        if (source.equals(destination)) {
-            logs.add("Source and destination are the same.");
-            visitedOrder.add(source);
-            return List.of(source);
-        }
-
-        logs.add("Starting BFS from: " + source);
-        Queue<String> queue = new LinkedList<>();
-        Set<String> visited = new HashSet<>();
-        Map<String, String> parent = new HashMap<>();
-
-        queue.offer(source);
-        visited.add(source);
-
-        while (!queue.isEmpty()) {
-            String current = queue.poll();
-            logs.add("Dequeued: " + current);
-            logs.add("");
-            logs.add("Visiting: " + current);
-            visitedOrder.add(current);
-
-            if (current.equals(destination)) {
-                logs.add("");
-                logs.add("Destination reached: " + destination);
-                logs.add("");
-                List<String> path = new ArrayList<>();
-                for (String at = destination; at != null; at = parent.get(at)) {
-                    path.add(at);
+        if (src == dst) {
+            lastOutcome = Outcome.SAME_NODE;
+            lastPath = List.of(source);
+            return lastPath;
+        }
+
+        RoutingMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        BFSScratch scratch = BFSScratch.forThread(lastGraph.getNodeCount());
+        lastPath = lastGraph.buildPath(scratch.parent, src, searchTraced(lastGraph, scratch, src, dst,
+                observer == TraceListener.NONE ? trace : TraceListener.both(trace, observer), m != null));
+        if (m != null) {
+            m.recordQuery(System.nanoTime() - start, scratch);
+        }
+        lastOutcome = lastPath == null ? Outcome.NO_PATH : Outcome.FOUND;
+        return lastPath;
+    }
+
+    // Feature 4: Quiet point-to-point query for high query rates
+    // Runs on the calling thread's reusable BFSScratch (ring-buffer queue, epoch-stamped visited array,
+    // parent array), records no logs and no visited order, and is safe to call from several threads.
+    // After warm-up the only allocation is the returned path. Returns null if either node is missing
+    // or no path exists. A Graph-backed router re-snapshots the graph only after it changed.
+    @Override
+    public List<String> findPath(String source, String destination) {
+        CompactGraph target = compact != null ? compact : graph.snapshot();
+        int src = target.idOf(source);
+        int dst = target.idOf(destination);
+        if (src < 0 || dst < 0) {
+            return null;
+        }
+        RoutingMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        BFSScratch scratch = BFSScratch.forThread(target.getNodeCount());
+        List<String> path = target.buildPath(scratch.parent, src, search(target, scratch, src, dst, m != null));
+        scratch.lastQueryVisited = scratch.visitedCount;
+        if (m != null) {
+            m.recordQuery(System.nanoTime() - start, scratch);
+        }
+        return path;
+    }
+
+    // BFS kernel of the quiet queries: returns dst once reached, or -1 if unreachable
+    // Kept free of listener calls so findPath never pays for tracing, whatever runBFS has been used with.
+    // Level sizes and scanned edges are only counted when metered (metrics on); visitedCount always is.
+    static int search(CompactGraph target, BFSScratch scratch, int src, int dst, boolean metered) {
+        int[] offsets = target.offsets;
+        int[] targets = target.targets;
+        scratch.reset();
+        scratch.visit(src, src);
+        scratch.enqueue(src);
+        int levelEnd = scratch.head;
+        while (!scratch.isQueueEmpty()) {
+            if (metered && scratch.head == levelEnd) {
+                scratch.recordLevel(scratch.queueSize());
+                levelEnd = scratch.tail;
+            }
+            int current = scratch.dequeue();
+            if (current == dst) {
+                return dst;
+            }
+            if (metered) {
+                scratch.edgesScanned += offsets[current + 1] - offsets[current];
+            }
+            for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                int neighbor = targets[e];
+                if (!scratch.isVisited(neighbor)) {
+                    scratch.visit(neighbor, current);
+                    scratch.enqueue(neighbor);
                 }
-                Collections.reverse(path);
-                logs.add("Shortest path: " + path);
-                return path;
             }
+        }
+        return -1;
+    }
 
-            List<String> queuedNeighbors = new ArrayList<>();
-            for (String neighbor : graph.getNeighbors(current)) {
-                if (!visited.contains(neighbor)) {
-                    queue.offer(neighbor);
-                    visited.add(neighbor);
-                    parent.put(neighbor, current);
-                    queuedNeighbors.add(neighbor);
+    // Same traversal as search, reporting every dequeue, enqueue and the arrival at dst to trace (runBFS)
+    static int searchTraced(CompactGraph target, BFSScratch scratch, int src, int dst, TraceListener trace,
+                            boolean metered) {
+        int[] offsets = target.offsets;
+        int[] targets = target.targets;
+        scratch.reset();
+        scratch.visit(src, src);
+        scratch.enqueue(src);
+        int levelEnd = scratch.head;
+        while (!scratch.isQueueEmpty()) {
+            if (metered && scratch.head == levelEnd) {
+                scratch.recordLevel(scratch.queueSize());
+                levelEnd = scratch.tail;
+            }
+            int current = scratch.dequeue();
+            trace.onDequeue(current);
+            if (current == dst) {
+                trace.onFound(dst);
+                return dst;
+            }
+            if (metered) {
+                scratch.edgesScanned += offsets[current + 1] - offsets[current];
+            }
+            for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                int neighbor = targets[e];
+                if (!scratch.isVisited(neighbor)) {
+                    scratch.visit(neighbor, current);
+                    scratch.enqueue(neighbor);
+                    trace.onEnqueue(neighbor, current);
                 }
             }
-            if (!queuedNeighbors.isEmpty()) {
-                logs.add("Queueing: " + String.join(", ", queuedNeighbors));
-                logs.add("");
+        }
+        return -1;
+    }
+
+    // Feature 4: Bidirectional point-to-point query
+    // Grows one frontier from each end, always expanding a full level of the smaller side, and stitches
+    // the two parent chains together at the best meeting node. Paths have the same hop count as runBFS,
+    // though ties between equally short paths may be broken differently.
+    public List<String> findPathBidirectional(String source, String destination) {
+        CompactGraph target = compact != null ? compact : graph.snapshot();
+        int src = target.idOf(source);
+        int dst = target.idOf(destination);
+        if (src < 0 || dst < 0) {
+            return null;
+        }
+        RoutingMetrics m = metrics;
+        long start = m == null ? 0 : System.nanoTime();
+        BFSScratch forward = BFSScratch.forThread(target.getNodeCount());
+        BFSScratch backward = BFSScratch.reverseForThread(target.getNodeCount());
+        int meet = searchBidirectional(target, forward, backward, src, dst, m != null);
+        int visited = forward.visitedCount + backward.visitedCount;
+        forward.lastQueryVisited = visited;
+        if (m != null) {
+            m.recordQuery(System.nanoTime() - start, visited, forward, backward);
+        }
+        if (meet < 0) {
+            return null;
+        }
+
+        String[] path = new String[forward.dist[meet] + backward.dist[meet] + 1];
+        int at = meet;
+        for (int i = forward.dist[meet]; i > 0; i--) {
+            path[i] = target.names[at];
+            at = forward.parent[at];
+        }
+        path[0] = target.names[src];
+        at = meet;
+        for (int i = forward.dist[meet] + 1; i < path.length; i++) {
+            at = backward.parent[at];
+            path[i] = target.names[at];
+        }
+        return Arrays.asList(path);
+    }
+
+    // Bidirectional kernel: returns the node where the two searches meet on a shortest path, or -1
+    static int searchBidirectional(CompactGraph target, BFSScratch forward, BFSScratch backward, int src, int dst,
+                                   boolean metered) {
+        int[] offsets = target.offsets;
+        int[] targets = target.targets;
+        forward.reset();
+        backward.reset();
+        forward.visit(src, src);
+        forward.dist[src] = 0;
+        forward.enqueue(src);
+        backward.visit(dst, dst);
+        backward.dist[dst] = 0;
+        backward.enqueue(dst);
+        if (src == dst) {
+            return src;
+        }
+
+        while (!forward.isQueueEmpty() && !backward.isQueueEmpty()) {
+            BFSScratch side = forward.queueSize() <= backward.queueSize() ? forward : backward;
+            BFSScratch other = side == forward ? backward : forward;
+            int meet = -1;
+            int best = Integer.MAX_VALUE;
+
+            // Expand exactly one level so every meeting found at this depth is compared
+            if (metered) {
+                side.recordLevel(side.queueSize());
             }
+            for (int remaining = side.queueSize(); remaining > 0; remaining--) {
+                int current = side.dequeue();
+                int nextDist = side.dist[current] + 1;
+                if (metered) {
+                    side.edgesScanned += offsets[current + 1] - offsets[current];
+                }
+                for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                    int neighbor = targets[e];
+                    if (side.isVisited(neighbor)) {
+                        continue;
+                    }
+                    side.visit(neighbor, current);
+                    side.dist[neighbor] = nextDist;
+                    side.enqueue(neighbor);
+                    if (other.isVisited(neighbor) && nextDist + other.dist[neighbor] < best) {
+                        best = nextDist + other.dist[neighbor];
+                        meet = neighbor;
+                    }
+                }
+            }
+            if (meet >= 0) {
+                return meet;
+            }
+        }
+        return -1;
+    }
+
+    // Feature 4: Hop distance from source to every node (-1 = unreachable, null = unknown source)
+    // Indexed by CompactGraph id; for a Graph-backed router id i is the i-th node of graph.getAllNodes().
+    // Uses the direction-optimizing traversal, which pays off for full sweeps rather than single paths.
+    public int[] distancesFrom(String source) {
+        CompactGraph target = compact != null ? compact : graph.snapshot();
+        int src = target.idOf(source);
+        if (src < 0) {
+            return null;
         }
-        logs.add("No path found from " + source + " to " + destination);
-        return null;
+        return DirectionOptimizingBFS.distancesFrom(target, src);
     }
 
+    // Number of nodes reached by the last findPath / findPathBidirectional call on the calling thread
+    public int getLastVisitedCount() {
+        return BFSScratch.forThread(0).lastQueryVisited;
+    }
+
+    // Feature 8: Log lines of the last runBFS, rendered from the trace on first request
     public List<String> getLogs() {
+        if (logs == null) {
+            logs = new ArrayList<>();
+            if (lastOutcome == Outcome.INVALID) {
+                logs.add("Invalid source or destination node.");
+            } else if (lastOutcome == Outcome.SAME_NODE) {
+                logs.add("Source and destination are the same.");
+            } else if (lastOutcome != null) {
+                logs.add("Starting BFS from: " + lastSource);
+                trace.render(lastGraph, logs);
+                if (lastOutcome == Outcome.FOUND) {
+                    logs.add("");
+                    logs.add("Destination reached: " + lastDestination);
+                    logs.add("");
+                    logs.add("Shortest path: " + lastPath);
+                } else {
+                    logs.add("No path found from " + lastSource + " to " + lastDestination);
+                }
+            }
+        }
         return logs;
     }
 
+    // Feature 6: Nodes of the last runBFS in visiting order
     public List<String> getVisitedOrder() {
+        if (visitedOrder == null) {
+            if (lastOutcome == Outcome.SAME_NODE) {
+                visitedOrder = List.of(lastSource);
+            } else if (lastOutcome == Outcome.FOUND || lastOutcome == Outcome.NO_PATH) {
+                visitedOrder = trace.visitedNodes(lastGraph);
+            } else {
+                visitedOrder = List.of();
+            }
+        }
         return visitedOrder;
     }
 }
@@ -0,0 +1,98 @@
+import java.util.Arrays;
+
+// Reusable per-thread working memory for the int BFS kernels
+// Holding these buffers across queries means a warmed-up point-to-point query allocates
+// nothing except the path it returns. Buffers only grow, never shrink.
+final class BFSScratch {
+    private static final ThreadLocal<BFSScratch> PER_THREAD = ThreadLocal.withInitial(BFSScratch::new);
+    private static final ThreadLocal<BFSScratch> PER_THREAD_REVERSE = ThreadLocal.withInitial(BFSScratch::new);
+
+    int[] queue = new int[0];   // Ring buffer of node ids, capacity is a power of two
+    int queueMask;
+    int head;
+    int tail;
+
+    int[] visited = new int[0]; // visited[v] == epoch  <=>  v was reached in the current query
+    int[] parent = new int[0];  // Only meaningful where visited[v] == epoch
+    int[] dist = new int[0];    // Hop distance from the search root, only set by the bidirectional kernel
+    int epoch;
+    int visitedCount;           // Nodes reached in the current query by this scratch's kernel
+    int lastQueryVisited;       // Nodes reached by the last whole findPath* query, both sides if bidirectional
+    long edgesScanned;          // Adjacency entries examined in the current query
+    int[] levelSizes = new int[16]; // Frontier size of each BFS level expanded in the current query
+    int levels;
+
+    // Helper: Scratch of the calling thread, sized for a graph with nodeCount nodes
+    static BFSScratch forThread(int nodeCount) {
+        BFSScratch scratch = PER_THREAD.get();
+        scratch.ensureCapacity(nodeCount);
+        return scratch;
+    }
+
+    // Helper: Second scratch of the calling thread, used for the backward side of a bidirectional search
+    static BFSScratch reverseForThread(int nodeCount) {
+        BFSScratch scratch = PER_THREAD_REVERSE.get();
+        scratch.ensureCapacity(nodeCount);
+        return scratch;
+    }
+
+    void ensureCapacity(int nodeCount) {
+        if (visited.length < nodeCount) {
+            visited = new int[nodeCount];
+            parent = new int[nodeCount];
+            dist = new int[nodeCount];
+            epoch = 0;
+        }
+        if (queue.length < nodeCount) {
+            int capacity = Integer.highestOneBit(Math.max(nodeCount, 2) - 1) << 1;
+            queue = new int[capacity];
+            queueMask = capacity - 1;
+        }
+    }
+
+    // Start a new query: bump the epoch instead of clearing the visited array
+    void reset() {
+        head = 0;
+        tail = 0;
+        visitedCount = 0;
+        edgesScanned = 0;
+        levels = 0;
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            epoch = 1;
+        }
+    }
+
+    boolean isVisited(int node) {
+        return visited[node] == epoch;
+    }
+
+    void visit(int node, int from) {
+        visited[node] = epoch;
+        parent[node] = from;
+        visitedCount++;
+    }
+
+    void recordLevel(int frontierSize) {
+        if (levels == levelSizes.length) {
+            levelSizes = Arrays.copyOf(levelSizes, levels * 2);
+        }
+        levelSizes[levels++] = frontierSize;
+    }
+
+    int queueSize() {
+        return tail - head;
+    }
+
+    boolean isQueueEmpty() {
+        return head == tail;
+    }
+
+    void enqueue(int node) {
+        queue[tail++ & queueMask] = node;
+    }
+
+    int dequeue() {
+        return queue[head++ & queueMask];
+    }
+}
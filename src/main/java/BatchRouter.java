@@ -0,0 +1,123 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Concurrent batch routing against an immutable CompactGraph snapshot
+// Queries are grouped by source so one traversal answers every destination of that source, and the
+// groups run on a bounded thread pool. Each worker thread uses its own BFSScratch buffers, and the
+// snapshot is never mutated, so a single BatchRouter can be shared between callers.
+public final class BatchRouter implements AutoCloseable {
+    private final CompactGraph snapshot;
+    private final ExecutorService executor;
+
+    public BatchRouter(CompactGraph snapshot, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1.");
+        }
+        this.snapshot = snapshot;
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "batch-router");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    // Snapshot the graph now; later edits to the Graph are not seen by this router
+    public BatchRouter(Graph graph, int threads) {
+        this(graph.snapshot(), threads);
+    }
+
+    public CompactGraph getSnapshot() {
+        return snapshot;
+    }
+
+    // Route every query; result i is the shortest path for queries.get(i), or null if there is none
+    public List<List<String>> routeAll(List<RouteQuery> queries) {
+        Map<String, List<Integer>> bySource = new LinkedHashMap<>();
+        for (int i = 0; i < queries.size(); i++) {
+            bySource.computeIfAbsent(queries.get(i).source(), s -> new ArrayList<>()).add(i);
+        }
+
+        List<String>[] results = newResultArray(queries.size());
+        List<Callable<Void>> tasks = new ArrayList<>(bySource.size());
+        for (Map.Entry<String, List<Integer>> group : bySource.entrySet()) {
+            tasks.add(() -> {
+                routeGroup(group.getKey(), group.getValue(), queries, results);
+                return null;
+            });
+        }
+
+        try {
+            for (Future<Void> future : executor.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Batch routing interrupted.");
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch routing failed.", e.getCause());
+        }
+        return Arrays.asList(results);
+    }
+
+    // One traversal per source: BFS until every requested destination has been reached
+    private void routeGroup(String source, List<Integer> indexes, List<RouteQuery> queries, List<String>[] results) {
+        int src = snapshot.idOf(source);
+        if (src < 0) {
+            return;
+        }
+        int n = snapshot.getNodeCount();
+        BFSScratch scratch = BFSScratch.forThread(n);
+
+        // The reverse scratch's visited stamps double as the set of pending destinations
+        BFSScratch pending = BFSScratch.reverseForThread(n);
+        pending.reset();
+        for (int index : indexes) {
+            int dst = snapshot.idOf(queries.get(index).destination());
+            if (dst >= 0 && !pending.isVisited(dst)) {
+                pending.visit(dst, dst);
+            }
+        }
+        if (pending.visitedCount == 0) {
+            return; // Every destination of this source is unknown
+        }
+        search(scratch, pending, src, pending.visitedCount);
+
+        for (int index : indexes) {
+            int dst = snapshot.idOf(queries.get(index).destination());
+            if (dst >= 0 && scratch.isVisited(dst)) {
+                results[index] = snapshot.buildPath(scratch.parent, src, dst);
+            }
+        }
+    }
+
+    private void search(BFSScratch scratch, BFSScratch pending, int src, int remaining) {
+        int[] offsets = snapshot.offsets;
+        int[] targets = snapshot.targets;
+        scratch.reset();
+        scratch.visit(src, src);
+        scratch.enqueue(src);
+        while (!scratch.isQueueEmpty()) {
+            int current = scratch.dequeue();
+            if (pending.isVisited(current) && --remaining == 0) {
+                return;
+            }
+            for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                int neighbor = targets[e];
+                if (!scratch.isVisited(neighbor)) {
+                    scratch.visit(neighbor, current);
+                    scratch.enqueue(neighbor);
+                }
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String>[] newResultArray(int size) {
+        return (List<String>[]) new List<?>[size];
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+}
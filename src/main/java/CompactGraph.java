@@ -0,0 +1,202 @@
+import java.util.*;
+
+// Immutable compressed-sparse-row (CSR) snapshot of a Graph
+// Node names are interned to dense int ids 0..n-1, and the neighbors of node i are
+// stored in targets[offsets[i] .. offsets[i + 1]). Routing kernels work on the int ids
+// only, so the inner loops never box, hash or compare Strings.
+public final class CompactGraph {
+    static final int MAX_EDGES = (Integer.MAX_VALUE - 8) / 2; // Both directions must fit in one targets array
+
+    final String[] names;    // id -> node name
+    final int[] offsets;     // length n + 1, row start of each node in targets
+    final int[] targets;     // neighbor ids, both directions of every undirected edge
+    final double[] weights;  // weight of targets[e] at weights[e]; null when every edge weighs 1.0
+    final float[] xs;        // node positions for A*, NaN where unknown; null when no node has one
+    final float[] ys;
+    private volatile Map<String, Integer> ids; // name -> id, only used at the API boundary, built on first use
+
+    CompactGraph(String[] names, int[] offsets, int[] targets) {
+        this(names, offsets, targets, null, null, null, null);
+    }
+
+    CompactGraph(String[] names, int[] offsets, int[] targets, Map<String, Integer> ids,
+                 double[] weights, float[] xs, float[] ys) {
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.ids = ids;
+        this.weights = weights;
+        this.xs = xs;
+        this.ys = ys;
+    }
+
+    // Snapshot the current topology of a Graph
+    // Neighbor order follows graph.getNeighbors() so traversals visit nodes in the same order.
+    public static CompactGraph fromGraph(Graph graph) {
+        Map<String, Set<String>> adjacency = graph.adjacency();
+        int n = adjacency.size();
+        String[] names = adjacency.keySet().toArray(new String[0]);
+        Map<String, Integer> ids = new HashMap<>(n * 4 / 3 + 1);
+        for (int i = 0; i < n; i++) {
+            ids.put(names[i], i);
+        }
+
+        // values() iterates in the same order as keySet(), so row i belongs to names[i]
+        int[] offsets = new int[n + 1];
+        int row = 0;
+        for (Set<String> neighbors : adjacency.values()) {
+            offsets[row + 1] = offsets[row] + neighbors.size();
+            row++;
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = graph.isWeighted() ? new double[targets.length] : null;
+        row = 0;
+        for (Set<String> neighbors : adjacency.values()) {
+            int pos = offsets[row];
+            for (String neighbor : neighbors) {
+                if (weights != null) {
+                    weights[pos] = graph.getWeight(names[row], neighbor);
+                }
+                targets[pos++] = ids.get(neighbor);
+            }
+            row++;
+        }
+
+        float[] xs = null;
+        float[] ys = null;
+        for (int i = 0; i < n; i++) {
+            java.awt.Point p = graph.getNodePosition(names[i]);
+            if (p == null) {
+                continue;
+            }
+            if (xs == null) {
+                xs = new float[n];
+                ys = new float[n];
+                Arrays.fill(xs, Float.NaN);
+                Arrays.fill(ys, Float.NaN);
+            }
+            xs[i] = p.x;
+            ys[i] = p.y;
+        }
+        return new CompactGraph(names, offsets, targets, ids, weights, xs, ys);
+    }
+
+    // Bulk-build from an edge list over interned ids: count degrees, prefix-sum, scatter both
+    // directions, then sort and de-duplicate every row. Self-loops must already be filtered out.
+    // Both directions are scattered before duplicates go, so at most MAX_EDGES edges fit in one int[] targets.
+    static CompactGraph fromEdges(String[] names, int[] from, int[] to, int edgeCount) {
+        if (edgeCount < 0 || edgeCount > MAX_EDGES) {
+            throw new IllegalArgumentException("Cannot build a CSR from " + edgeCount + " edges; the limit is "
+                    + MAX_EDGES + ".");
+        }
+        int n = names.length;
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[from[i] + 1]++;
+            offsets[to[i] + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] += offsets[i];
+        }
+        int[] fill = Arrays.copyOf(offsets, n);
+        int[] targets = new int[offsets[n]];
+        for (int i = 0; i < edgeCount; i++) {
+            targets[fill[from[i]]++] = to[i];
+            targets[fill[to[i]]++] = from[i];
+        }
+
+        // Sort each row and squeeze out duplicate edges, compacting rows towards the front
+        int write = 0;
+        int rowStart = 0;
+        for (int v = 0; v < n; v++) {
+            int rowEnd = offsets[v + 1];
+            Arrays.sort(targets, rowStart, rowEnd);
+            offsets[v] = write;
+            int last = -1;
+            for (int e = rowStart; e < rowEnd; e++) {
+                if (targets[e] != last) {
+                    last = targets[e];
+                    targets[write++] = last;
+                }
+            }
+            rowStart = rowEnd;
+        }
+        offsets[n] = write;
+        return new CompactGraph(names, offsets, write == targets.length ? targets : Arrays.copyOf(targets, write));
+    }
+
+    // Same topology (arrays are shared, not copied) with new node positions, e.g. from a layout pass
+    CompactGraph withPositions(float[] xs, float[] ys) {
+        return new CompactGraph(names, offsets, targets, ids, weights, xs, ys);
+    }
+
+    // Graphs loaded from disk skip building the name index until the first name lookup
+    // Racing threads may each build one; the map is complete before it is published.
+    private Map<String, Integer> ids() {
+        Map<String, Integer> index = ids;
+        if (index == null) {
+            index = new HashMap<>(names.length * 4 / 3 + 1);
+            for (int i = 0; i < names.length; i++) {
+                index.put(names[i], i);
+            }
+            ids = index;
+        }
+        return index;
+    }
+
+    // Helper: Id of a node, or -1 if the node does not exist
+    public int idOf(String node) {
+        Integer id = ids().get(node);
+        return id == null ? -1 : id;
+    }
+
+    // Helper: Name of the node with the given id
+    public String nameOf(int id) {
+        return names[id];
+    }
+
+    // Helper: Check node existence
+    public boolean hasNode(String node) {
+        return ids().containsKey(node);
+    }
+
+    // Helper: Number of neighbors of a node id
+    public int degree(int id) {
+        return offsets[id + 1] - offsets[id];
+    }
+
+    // Helper: Walk a parent array back from dst to src and return the node names in order
+    // Returns null when dst is -1 (not reached). parent[src] is never read.
+    List<String> buildPath(int[] parent, int src, int dst) {
+        if (dst < 0) {
+            return null;
+        }
+        int length = 1;
+        for (int at = dst; at != src; at = parent[at]) {
+            length++;
+        }
+        String[] path = new String[length];
+        int at = dst;
+        for (int i = length - 1; i > 0; i--) {
+            path[i] = names[at];
+            at = parent[at];
+        }
+        path[0] = names[src];
+        return Arrays.asList(path);
+    }
+
+    // Helper: Total number of nodes
+    public int getNodeCount() {
+        return names.length;
+    }
+
+    // Helper: Weight of adjacency entry e (1.0 for unweighted graphs)
+    double weight(int e) {
+        return weights == null ? 1.0 : weights[e];
+    }
+
+    // Helper: Total number of undirected edges
+    public int getEdgeCount() {
+        return targets.length / 2;
+    }
+}
@@ -0,0 +1,162 @@
+import java.util.*;
+
+// Weighted shortest paths with Dijkstra, or A* when node positions are known
+// Works on the CompactGraph weights[] array and an indexed binary heap over int ids, with reusable
+// per-thread scratch buffers like BFSRouter's quiet queries.
+// A* heuristic: straight-line distance to the destination times the largest factor that keeps it
+// admissible and consistent for this snapshot, min over edges of weight / straight-line length.
+// If any node has no position the heuristic is 0 and A* behaves exactly like Dijkstra.
+public class DijkstraRouter implements Router {
+    private static final ThreadLocal<Scratch> PER_THREAD = ThreadLocal.withInitial(Scratch::new);
+
+    private final Graph graph;              // null when routing on a fixed CompactGraph
+    private final CompactGraph compact;
+    private final boolean aStar;
+    private CompactGraph scaledFor;         // Snapshot heuristicScale was computed for
+    private double heuristicScale;
+
+    public DijkstraRouter(Graph graph, boolean aStar) {
+        this.graph = graph;
+        this.compact = null;
+        this.aStar = aStar;
+    }
+
+    public DijkstraRouter(CompactGraph compact, boolean aStar) {
+        this.graph = null;
+        this.compact = compact;
+        this.aStar = aStar;
+    }
+
+    @Override
+    public List<String> findPath(String source, String destination) {
+        CompactGraph target = compact != null ? compact : graph.snapshot();
+        int src = target.idOf(source);
+        int dst = target.idOf(destination);
+        if (src < 0 || dst < 0) {
+            return null;
+        }
+        double scale = aStar ? heuristicScale(target) : 0;
+        Scratch scratch = PER_THREAD.get();
+        scratch.prepare(target.getNodeCount());
+        return target.buildPath(scratch.parent, src, search(target, scratch, src, dst, scale));
+    }
+
+    // Total weight of the last path found on the calling thread (Infinity if none)
+    public double getLastCost() {
+        return PER_THREAD.get().lastCost;
+    }
+
+    // Number of nodes settled by the last query on the calling thread
+    public int getLastSettledCount() {
+        return PER_THREAD.get().settled;
+    }
+
+    private static int search(CompactGraph g, Scratch s, int src, int dst, double scale) {
+        int[] offsets = g.offsets;
+        int[] targets = g.targets;
+        double[] weights = g.weights;
+        float[] xs = g.xs;
+        float[] ys = g.ys;
+        boolean useHeuristic = scale > 0;
+
+        s.reach(src, -1, 0);
+        s.heap.insertOrDecrease(src, 0);
+        while (!s.heap.isEmpty()) {
+            int u = s.heap.poll();
+            s.closed[u] = s.epoch;
+            s.settled++;
+            if (u == dst) {
+                s.lastCost = s.dist[dst];
+                return dst;
+            }
+            double du = s.dist[u];
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                if (s.closed[v] == s.epoch) {
+                    continue;
+                }
+                double dv = du + (weights == null ? 1.0 : weights[e]);
+                if (s.seen[v] != s.epoch || dv < s.dist[v]) {
+                    s.reach(v, u, dv);
+                    double h = 0;
+                    if (useHeuristic) {
+                        double dx = xs[v] - xs[dst];
+                        double dy = ys[v] - ys[dst];
+                        h = scale * Math.sqrt(dx * dx + dy * dy);
+                    }
+                    s.heap.insertOrDecrease(v, dv + h);
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Largest factor k with k * |pos(u) - pos(v)| <= weight(u, v) on every edge, 0 if any position is missing
+    private synchronized double heuristicScale(CompactGraph g) {
+        if (scaledFor == g) {
+            return heuristicScale;
+        }
+        double scale = 0;
+        if (g.xs != null) {
+            scale = Double.POSITIVE_INFINITY;
+            for (int u = 0; u < g.getNodeCount() && scale > 0; u++) {
+                if (Float.isNaN(g.xs[u])) {
+                    scale = 0;
+                    break;
+                }
+                for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                    int v = g.targets[e];
+                    double dx = g.xs[u] - g.xs[v];
+                    double dy = g.ys[u] - g.ys[v];
+                    double length = Math.sqrt(dx * dx + dy * dy);
+                    if (length > 0) {
+                        scale = Math.min(scale, g.weight(e) / length);
+                    }
+                }
+            }
+            if (Double.isInfinite(scale)) {
+                scale = 0;
+            }
+        }
+        scaledFor = g;
+        heuristicScale = scale;
+        return scale;
+    }
+
+    // Per-thread working memory: epoch-stamped tentative distances, parents and closed set
+    private static final class Scratch {
+        final IndexedMinHeap heap = new IndexedMinHeap();
+        double[] dist = new double[0];
+        int[] parent = new int[0];
+        int[] seen = new int[0];
+        int[] closed = new int[0];
+        int epoch;
+        int settled;
+        double lastCost;
+
+        void prepare(int n) {
+            if (seen.length < n) {
+                dist = new double[n];
+                parent = new int[n];
+                seen = new int[n];
+                closed = new int[n];
+                epoch = 0;
+            }
+            heap.ensureCapacity(n);
+            heap.clear();
+            if (++epoch == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(closed, 0);
+                epoch = 1;
+            }
+            settled = 0;
+            lastCost = Double.POSITIVE_INFINITY;
+        }
+
+        void reach(int node, int from, double distance) {
+            seen[node] = epoch;
+            parent[node] = from;
+            dist[node] = distance;
+        }
+    }
+}
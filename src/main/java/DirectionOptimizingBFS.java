@@ -0,0 +1,126 @@
+import java.util.Arrays;
+
+// Direction-optimizing (top-down / bottom-up) BFS for full single-source sweeps
+// Top-down expands every frontier node's edges; bottom-up lets every unvisited node look for any
+// parent in the frontier and stop at the first hit. Bottom-up wins once the frontier covers a large
+// share of the graph, top-down wins while it is small. The bottom-up frontier is a bitset over node ids.
+// Switching heuristic after Beamer et al.: go bottom-up when the frontier's edges exceed
+// 1/ALPHA of the unexplored edges, go back top-down when the frontier shrinks below n/BETA nodes.
+final class DirectionOptimizingBFS {
+    static final int ALPHA = 14;
+    static final int BETA = 24;
+
+    private DirectionOptimizingBFS() {
+    }
+
+    // Plain top-down sweep with the same output: the baseline the direction switch is measured and tested against
+    static int[] topDownDistancesFrom(CompactGraph graph, int src) {
+        int n = graph.getNodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        dist[src] = 0;
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = src;
+        while (head < tail) {
+            int u = queue[head++];
+            int next = dist[u] + 1;
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                if (dist[v] < 0) {
+                    dist[v] = next;
+                    queue[tail++] = v;
+                }
+            }
+        }
+        return dist;
+    }
+
+    // Hop distance from src to every node id, -1 for unreachable nodes
+    static int[] distancesFrom(CompactGraph graph, int src) {
+        int n = graph.getNodeCount();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        int[] dist = new int[n];
+        Arrays.fill(dist, -1);
+        dist[src] = 0;
+
+        // Top-down keeps the frontier as a list queue[head..tail); bottom-up keeps it as a bitset
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = src;
+        long[] frontier = new long[(n + 63) >>> 6];
+        long[] next = new long[frontier.length];
+        int frontierSize = 1;
+        long frontierEdges = graph.degree(src);
+        long unexploredEdges = targets.length - frontierEdges;
+        boolean bottomUp = false;
+        boolean growing = true;
+
+        for (int level = 1; frontierSize > 0; level++) {
+            if (!bottomUp && frontierEdges > unexploredEdges / ALPHA) {
+                bottomUp = true;
+                Arrays.fill(frontier, 0L);
+                for (int i = head; i < tail; i++) {
+                    frontier[queue[i] >>> 6] |= 1L << queue[i];
+                }
+            } else if (bottomUp && !growing && frontierSize < n / BETA) {
+                bottomUp = false;
+                head = 0;
+                tail = 0;
+                for (int w = 0; w < frontier.length; w++) {
+                    for (long bits = frontier[w]; bits != 0; bits &= bits - 1) {
+                        queue[tail++] = (w << 6) | Long.numberOfTrailingZeros(bits);
+                    }
+                }
+            }
+
+            int nextSize = 0;
+            long nextEdges = 0;
+            if (bottomUp) {
+                Arrays.fill(next, 0L);
+                for (int v = 0; v < n; v++) {
+                    if (dist[v] >= 0) {
+                        continue;
+                    }
+                    for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+                        int u = targets[e];
+                        if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                            dist[v] = level;
+                            next[v >>> 6] |= 1L << v;
+                            nextSize++;
+                            nextEdges += offsets[v + 1] - offsets[v];
+                            break;
+                        }
+                    }
+                }
+                long[] swap = frontier;
+                frontier = next;
+                next = swap;
+            } else {
+                for (int levelEnd = tail; head < levelEnd; ) {
+                    int u = queue[head++];
+                    for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                        int v = targets[e];
+                        if (dist[v] < 0) {
+                            dist[v] = level;
+                            queue[tail++] = v;
+                            nextSize++;
+                            nextEdges += offsets[v + 1] - offsets[v];
+                        }
+                    }
+                }
+            }
+
+            growing = nextSize > frontierSize;
+            unexploredEdges -= nextEdges;
+            frontierSize = nextSize;
+            frontierEdges = nextEdges;
+        }
+        return dist;
+    }
+}
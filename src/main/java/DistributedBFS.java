@@ -0,0 +1,369 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Feature 4: Partitioned BFS across worker JVMs on one machine
+// Nodes are hash-partitioned by id over N PartitionWorker processes. Each worker maps the GraphFile itself and
+// copies only its own adjacency rows; the coordinator maps the same file for name lookups only (MappedGraph,
+// nothing copied to the heap) and holds one frontier at a time. It drives a level-synchronous BFS over
+// loopback sockets (star topology, candidates for remote nodes are forwarded by the coordinator):
+//   EXPAND    each worker expands its part of the frontier and sends candidates for remote nodes
+//   DISCOVER  owners pick, for every newly reached node, the candidate with the smallest
+//             (parent position, row index) key and report the new nodes
+// The coordinator orders the new frontier by that key, which is the order the FIFO queue of BFSRouter
+// would hold them in, so parents and paths are the same as BFSRouter.runBFS / findPath on the same snapshot.
+// Per-level communication volume is reported in the Result, to compare partitionings.
+public final class DistributedBFS implements Router, AutoCloseable {
+    private static final int CONNECT_TIMEOUT_MS = 30_000;
+
+    private final Path file;
+    private final boolean temporary;     // file was written by this instance and is deleted by close()
+    private final MappedGraph graph;
+    private final int workers;
+    private final List<Process> processes = new ArrayList<>();
+    private final Socket[] sockets;
+    private final DataInputStream[] in;
+    private final DataOutputStream[] out;
+    private final int[] partitionSizes;
+    private long sent;     // Bytes written to workers, see writeInt
+    private long received; // Bytes read from workers, see readInt
+
+    // Traffic of one BFS level: remoteCandidates crossed the partition boundary, localCandidates did not
+    // A worker sends each remote node at most once per query, but it cannot see nodes that other workers
+    // reached, so remoteCandidates still counts some nodes that are already visited when they arrive.
+    public record LevelStats(int level, int frontierSize, long localCandidates, long remoteCandidates,
+                             long bytesSent, long bytesReceived) {
+    }
+
+    // Path (null if none) and per-level traffic of one query
+    public record Result(List<String> path, List<LevelStats> levels) {
+        public long totalBytes() {
+            long total = 0;
+            for (LevelStats level : levels) {
+                total += level.bytesSent() + level.bytesReceived();
+            }
+            return total;
+        }
+    }
+
+    // Start worker JVMs on a GraphFile, with the classpath of this JVM plus extra JVM options (e.g. "-Xmx2g")
+    public DistributedBFS(Path graphFile, int workers, List<String> jvmOptions) throws IOException {
+        this(graphFile, false, workers, jvmOptions);
+    }
+
+    public DistributedBFS(Path graphFile, int workers) throws IOException {
+        this(graphFile, workers, List.of());
+    }
+
+    // Graph already in memory: written to a temporary GraphFile that the workers map, deleted by close()
+    public DistributedBFS(CompactGraph graph, int workers, List<String> jvmOptions) throws IOException {
+        this(spill(graph), true, workers, jvmOptions);
+    }
+
+    public DistributedBFS(CompactGraph graph, int workers) throws IOException {
+        this(graph, workers, List.of());
+    }
+
+    private DistributedBFS(Path file, boolean temporary, int workers, List<String> jvmOptions) throws IOException {
+        if (workers < 1) {
+            throw new IllegalArgumentException("At least one worker is required.");
+        }
+        this.file = file;
+        this.temporary = temporary;
+        this.workers = workers;
+        this.sockets = new Socket[workers];
+        this.in = new DataInputStream[workers];
+        this.out = new DataOutputStream[workers];
+        this.partitionSizes = new int[workers];
+        try {
+            this.graph = GraphFile.map(file);
+            start(jvmOptions);
+            load();
+        } catch (SocketTimeoutException e) {
+            close();
+            throw new IOException("Workers did not connect within " + CONNECT_TIMEOUT_MS + " ms.", e);
+        } catch (IOException | RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    private static Path spill(CompactGraph graph) throws IOException {
+        Path file = Files.createTempFile("distributed-bfs", ".graph");
+        try {
+            GraphFile.write(graph, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    // Helper: Spawn the workers and accept their connections; each one first sends its index
+    private void start(List<String> jvmOptions) throws IOException {
+        try (ServerSocket server = new ServerSocket(0, workers, InetAddress.getLoopbackAddress())) {
+            server.setSoTimeout(CONNECT_TIMEOUT_MS);
+            Path java = Paths.get(System.getProperty("java.home"), "bin", "java");
+            for (int w = 0; w < workers; w++) {
+                List<String> command = new ArrayList<>();
+                command.add(java.toString());
+                command.addAll(jvmOptions);
+                command.add("-cp");
+                command.add(System.getProperty("java.class.path"));
+                command.add("PartitionWorker");
+                command.add(server.getInetAddress().getHostAddress());
+                command.add(Integer.toString(server.getLocalPort()));
+                command.add(Integer.toString(w));
+                processes.add(new ProcessBuilder(command).inheritIO().start());
+            }
+            for (int connected = 0; connected < workers; connected++) {
+                Socket socket = server.accept();
+                socket.setTcpNoDelay(true);
+                DataInputStream input = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+                int w = input.readInt();
+                if (w < 0 || w >= workers || sockets[w] != null) {
+                    socket.close();
+                    throw new IOException("Unexpected worker index " + w);
+                }
+                sockets[w] = socket;
+                in[w] = input;
+                out[w] = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            }
+        }
+    }
+
+    // Helper: Every worker maps the file and picks its own rows, all at the same time
+    private void load() throws IOException {
+        String path = file.toAbsolutePath().toString();
+        for (int w = 0; w < workers; w++) {
+            out[w].writeInt(PartitionWorker.LOAD);
+            out[w].writeInt(workers);
+            out[w].writeUTF(path);
+            out[w].flush();
+        }
+        for (int w = 0; w < workers; w++) {
+            partitionSizes[w] = in[w].readInt();
+        }
+    }
+
+    public int getWorkerCount() {
+        return workers;
+    }
+
+    // Nodes owned by each worker, as reported when loading, to judge the balance of the partitioning
+    public int[] partitionSizes() {
+        return partitionSizes.clone();
+    }
+
+    @Override
+    public List<String> findPath(String source, String destination) {
+        try {
+            return route(source, destination).path();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Shortest path plus per-level traffic; path is null if either node is missing or there is no path
+    public synchronized Result route(String source, String destination) throws IOException {
+        List<LevelStats> levels = new ArrayList<>();
+        int src = graph.idOf(source);
+        int dst = graph.idOf(destination);
+        if (src < 0 || dst < 0) {
+            return new Result(null, levels);
+        }
+        if (src == dst) {
+            return new Result(List.of(source), levels);
+        }
+        for (int w = 0; w < workers; w++) {
+            writeInt(w, PartitionWorker.QUERY);
+            writeInt(w, src);
+            out[w].flush();
+        }
+
+        int[] frontier = {src};
+        boolean found = false;
+        for (int level = 1; frontier.length > 0 && !found; level++) {
+            long sentBefore = sent;
+            long receivedBefore = received;
+
+            // EXPAND: each worker gets its frontier nodes, in position order
+            int[][] expand = new int[workers][];
+            int[] expandSize = new int[workers];
+            for (int position = 0; position < frontier.length; position++) {
+                int w = PartitionWorker.ownerOf(frontier[position], workers);
+                if (expand[w] == null || expandSize[w] + 2 > expand[w].length) {
+                    expand[w] = expand[w] == null ? new int[64] : Arrays.copyOf(expand[w], expand[w].length * 2);
+                }
+                expand[w][expandSize[w]++] = frontier[position];
+                expand[w][expandSize[w]++] = position;
+            }
+            for (int w = 0; w < workers; w++) {
+                writeInt(w, PartitionWorker.EXPAND);
+                writeInt(w, expandSize[w] / 2);
+                for (int i = 0; i < expandSize[w]; i++) {
+                    writeInt(w, expand[w][i]);
+                }
+                out[w].flush();
+            }
+
+            // Collect candidates per destination worker
+            long localCandidates = 0;
+            long remoteCandidates = 0;
+            int[][] forward = new int[workers][];
+            int[] forwardSize = new int[workers];
+            for (int w = 0; w < workers; w++) {
+                localCandidates += readInt(w);
+                for (int target = 0; target < workers; target++) {
+                    if (target == w) {
+                        continue;
+                    }
+                    int count = readInt(w);
+                    remoteCandidates += count;
+                    int needed = forwardSize[target] + 4 * count;
+                    if (forward[target] == null || needed > forward[target].length) {
+                        int capacity = Math.max(needed, forward[target] == null ? 64 : forward[target].length * 2);
+                        forward[target] = forward[target] == null ? new int[capacity] : Arrays.copyOf(forward[target], capacity);
+                    }
+                    for (int i = 0; i < 4 * count; i++) {
+                        forward[target][forwardSize[target]++] = readInt(w);
+                    }
+                }
+            }
+
+            // DISCOVER: forward candidates to their owners, collect the newly reached nodes
+            for (int w = 0; w < workers; w++) {
+                writeInt(w, PartitionWorker.DISCOVER);
+                writeInt(w, forwardSize[w] / 4);
+                for (int i = 0; i < forwardSize[w]; i++) {
+                    writeInt(w, forward[w][i]);
+                }
+                out[w].flush();
+            }
+            int total = 0;
+            int[][] reached = new int[workers][];
+            for (int w = 0; w < workers; w++) {
+                int count = readInt(w);
+                reached[w] = new int[3 * count];
+                for (int i = 0; i < reached[w].length; i++) {
+                    reached[w][i] = readInt(w);
+                }
+                total += count;
+            }
+
+            frontier = order(reached, total, frontier.length);
+            for (int v : frontier) {
+                if (v == dst) {
+                    found = true;
+                    break;
+                }
+            }
+            levels.add(new LevelStats(level, total, localCandidates, remoteCandidates,
+                    sent - sentBefore, received - receivedBefore));
+        }
+        return new Result(found ? walkParents(src, dst) : null, levels);
+    }
+
+    // Helper: New frontier in BFS queue order: by parent position (counting sort), then by row index
+    private static int[] order(int[][] reached, int total, int previousSize) {
+        int[] bucketStart = new int[previousSize + 1];
+        for (int[] triples : reached) {
+            for (int i = 0; i < triples.length; i += 3) {
+                bucketStart[triples[i + 1] + 1]++;
+            }
+        }
+        for (int p = 0; p < previousSize; p++) {
+            bucketStart[p + 1] += bucketStart[p];
+        }
+        long[] sorted = new long[total];
+        int[] fill = Arrays.copyOf(bucketStart, previousSize);
+        for (int[] triples : reached) {
+            for (int i = 0; i < triples.length; i += 3) {
+                sorted[fill[triples[i + 1]]++] = (long) triples[i + 2] << 32 | triples[i];
+            }
+        }
+        for (int p = 0; p < previousSize; p++) {
+            Arrays.sort(sorted, bucketStart[p], bucketStart[p + 1]);
+        }
+        int[] frontier = new int[total];
+        for (int i = 0; i < total; i++) {
+            frontier[i] = (int) sorted[i];
+        }
+        return frontier;
+    }
+
+    // Helper: Ask the owners for parents, from dst back to src
+    private List<String> walkParents(int src, int dst) throws IOException {
+        List<String> path = new ArrayList<>();
+        for (int at = dst; at != src; ) {
+            path.add(graph.nameOf(at));
+            int w = PartitionWorker.ownerOf(at, workers);
+            writeInt(w, PartitionWorker.PARENT);
+            writeInt(w, at);
+            out[w].flush();
+            at = readInt(w);
+            if (at < 0) {
+                throw new IOException("Worker " + w + " lost the BFS tree.");
+            }
+        }
+        path.add(graph.nameOf(src));
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Traffic is counted here rather than with DataOutputStream.size(), which saturates at Integer.MAX_VALUE
+    private void writeInt(int w, int value) throws IOException {
+        sent += 4;
+        out[w].writeInt(value);
+    }
+
+    private int readInt(int w) throws IOException {
+        received += 4;
+        return in[w].readInt();
+    }
+
+    @Override
+    public void close() {
+        for (int w = 0; w < workers; w++) {
+            try {
+                if (out[w] != null) {
+                    out[w].writeInt(PartitionWorker.SHUTDOWN);
+                    out[w].flush();
+                }
+            } catch (IOException e) {
+                // Worker already gone; it is destroyed below if still running
+            }
+            try {
+                if (sockets[w] != null) {
+                    sockets[w].close();
+                }
+            } catch (IOException e) {
+                // Nothing left to release
+            }
+        }
+        for (Process process : processes) {
+            try {
+                if (!process.waitFor(5, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (temporary) {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                // Left in the temporary directory
+            }
+        }
+    }
+}
@@ -0,0 +1,218 @@
+import java.util.*;
+
+// Feature 7: Shortest-path (BFS) tree for one source that follows topology changes incrementally
+// Subscribes to a Graph and repairs only the part of the tree a change can affect, in the style of
+// Ramalingam-Reps for unit weights:
+//  - edge inserted: if it shortens a distance, relax outward from the improved endpoint only
+//  - tree edge deleted: the detached subtree loses its distances; each of its nodes is re-seeded from
+//    neighbors outside the subtree and distances are settled with a bucket queue inside the subtree
+//  - non-tree edge deleted: nothing to do
+// Distances always equal a fresh BFS. Parents are valid shortest-path parents, though ties between
+// equally short parents may be broken differently than BFSRouter would.
+public class DynamicBFSTree implements GraphListener {
+    private final Graph graph;
+    private final String source;
+    private final Map<String, Integer> dist;     // Reachable nodes only
+    private final Map<String, String> parent;    // Reachable nodes except the source
+    private int lastRepairSize;                  // Nodes touched by the most recent change
+
+    public DynamicBFSTree(Graph graph, String source) {
+        this.graph = graph;
+        this.source = source;
+        this.dist = new HashMap<>();
+        this.parent = new HashMap<>();
+        rebuild();
+        graph.addListener(this);
+    }
+
+    // Helper: Recompute the whole tree from scratch
+    public void rebuild() {
+        dist.clear();
+        parent.clear();
+        if (!graph.hasNode(source)) {
+            lastRepairSize = 0;
+            return;
+        }
+        dist.put(source, 0);
+        relaxFrom(new ArrayDeque<>(List.of(source)));
+        lastRepairSize = dist.size();
+    }
+
+    // Stop following the graph
+    public void close() {
+        graph.removeListener(this);
+    }
+
+    public String getSource() {
+        return source;
+    }
+
+    // Hop distance from the source, or -1 if unreachable
+    public int getDistance(String node) {
+        return dist.getOrDefault(node, -1);
+    }
+
+    // Tree parent of a node, or null for the source and unreachable nodes
+    public String getParent(String node) {
+        return parent.get(node);
+    }
+
+    // Shortest path from the source to destination, or null if unreachable
+    public List<String> getPath(String destination) {
+        if (!dist.containsKey(destination)) {
+            return null;
+        }
+        List<String> path = new ArrayList<>();
+        for (String at = destination; at != null; at = parent.get(at)) {
+            path.add(at);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Number of nodes whose distance or parent was examined by the most recent change
+    public int getLastRepairSize() {
+        return lastRepairSize;
+    }
+
+    @Override
+    public void edgeAdded(String from, String to) {
+        lastRepairSize = 0;
+        int dFrom = getDistance(from);
+        int dTo = getDistance(to);
+        if (dFrom >= 0 && (dTo < 0 || dFrom + 1 < dTo)) {
+            improve(to, from, dFrom + 1);
+        } else if (dTo >= 0 && (dFrom < 0 || dTo + 1 < dFrom)) {
+            improve(from, to, dTo + 1);
+        }
+    }
+
+    @Override
+    public void edgeRemoved(String from, String to) {
+        lastRepairSize = 0;
+        if (from.equals(parent.get(to))) {
+            repair(to);
+        } else if (to.equals(parent.get(from))) {
+            repair(from);
+        }
+    }
+
+    @Override
+    public void nodeAdded(String node) {
+        if (node.equals(source)) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void nodeRemoved(String node) {
+        if (node.equals(source)) {
+            dist.clear();
+            parent.clear();
+        } else {
+            dist.remove(node);
+            parent.remove(node);
+        }
+    }
+
+    // Edge insertion: node got a shorter route through via, push the improvement outward
+    private void improve(String node, String via, int newDist) {
+        dist.put(node, newDist);
+        parent.put(node, via);
+        lastRepairSize++;
+        relaxFrom(new ArrayDeque<>(List.of(node)));
+    }
+
+    // Plain BFS relaxation: nodes are dequeued in non-decreasing distance order
+    private void relaxFrom(Deque<String> queue) {
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            int next = dist.get(current) + 1;
+            for (String neighbor : graph.getNeighbors(current)) {
+                Integer known = dist.get(neighbor);
+                if (known == null || next < known) {
+                    dist.put(neighbor, next);
+                    parent.put(neighbor, current);
+                    queue.offer(neighbor);
+                    lastRepairSize++;
+                }
+            }
+        }
+    }
+
+    // Tree edge deletion: re-settle the subtree that hung below root
+    private void repair(String root) {
+        int rootDist = dist.get(root);
+
+        // Cheap case: another neighbor one hop closer keeps root's distance, so nothing below it changes
+        for (String neighbor : graph.getNeighbors(root)) {
+            if (getDistance(neighbor) == rootDist - 1) {
+                parent.put(root, neighbor);
+                lastRepairSize = 1;
+                return;
+            }
+        }
+
+        // Collect the detached subtree: tree children of x are neighbors whose parent is x
+        Set<String> affected = new LinkedHashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        affected.add(root);
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            String current = stack.pop();
+            for (String neighbor : graph.getNeighbors(current)) {
+                if (current.equals(parent.get(neighbor)) && affected.add(neighbor)) {
+                    stack.push(neighbor);
+                }
+            }
+        }
+        for (String node : affected) {
+            dist.remove(node);
+            parent.remove(node);
+        }
+        lastRepairSize = affected.size();
+
+        // Seed every affected node from its best neighbor outside the subtree
+        // buckets.get(d) holds nodes whose tentative distance is d
+        List<Deque<String>> buckets = new ArrayList<>();
+        Map<String, Integer> tentative = new HashMap<>();
+        for (String node : affected) {
+            for (String neighbor : graph.getNeighbors(node)) {
+                Integer d = dist.get(neighbor);
+                if (d != null && d + 1 < tentative.getOrDefault(node, Integer.MAX_VALUE)) {
+                    tentative.put(node, d + 1);
+                    parent.put(node, neighbor);
+                }
+            }
+            Integer d = tentative.get(node);
+            if (d != null) {
+                bucket(buckets, d).add(node);
+            }
+        }
+
+        // Settle in distance order; stale bucket entries are skipped
+        for (int d = 0; d < buckets.size(); d++) {
+            for (String node : buckets.get(d)) {
+                if (dist.containsKey(node) || tentative.get(node) != d) {
+                    continue;
+                }
+                dist.put(node, d);
+                for (String neighbor : graph.getNeighbors(node)) {
+                    if (affected.contains(neighbor) && !dist.containsKey(neighbor)
+                            && d + 1 < tentative.getOrDefault(neighbor, Integer.MAX_VALUE)) {
+                        tentative.put(neighbor, d + 1);
+                        parent.put(neighbor, node);
+                        bucket(buckets, d + 1).add(neighbor);
+                    }
+                }
+            }
+        }
+    }
+
+    private static Deque<String> bucket(List<Deque<String>> buckets, int d) {
+        while (buckets.size() <= d) {
+            buckets.add(new ArrayDeque<>());
+        }
+        return buckets.get(d);
+    }
+}
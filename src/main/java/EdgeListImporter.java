@@ -0,0 +1,289 @@
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.*;
+
+// Streaming edge-list / CSV importer that bulk-builds a CompactGraph
+// One edge per line: "from,to", or "from to" / "from<TAB>to" when the line has no comma. Blank lines and lines
+// starting with '#' are skipped. The file is read in mapped blocks; each block is cut at line
+// boundaries into slices that are parsed in parallel, each slice interning names into its own
+// table. Slices are then merged in file order into one global name table, so ids and error line
+// numbers are the same as a sequential parse. Duplicate edges are dropped while building the CSR;
+// malformed lines and self-loops are counted, and the first MAX_ERRORS of them kept as ImportError records.
+public final class EdgeListImporter implements AutoCloseable {
+    private static final int BLOCK_BYTES = 64 << 20;
+    static final int MAX_ERRORS = 1000;         // Kept in ImportResult.errors(); the rest are only counted
+    static final int MAX_ERROR_TEXT = 200;      // Bytes of a bad line kept in its ImportError
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+    private final int blockBytes;
+
+    public EdgeListImporter(int parallelism) {
+        this(parallelism, BLOCK_BYTES);
+    }
+
+    // Smaller blocks put block boundaries where the tests want them
+    EdgeListImporter(int parallelism, int blockBytes) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        this.blockBytes = blockBytes;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public EdgeListImporter() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ImportResult importFile(Path file) throws IOException {
+        long start = System.nanoTime();
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        List<ImportError> errors = new ArrayList<>();
+        long errorCount = 0;
+        int[] from = new int[1024];
+        int[] to = new int[1024];
+        int edgeCount = 0;
+        long lineBase = 0;
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long pos = 0;
+            while (pos < size) {
+                int length = (int) Math.min(blockBytes, size - pos);
+                byte[] block = new byte[length];
+                MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, pos, length);
+                mapped.get(block);
+
+                // Only parse up to the last newline unless this is the end of the file
+                int usable = length;
+                if (pos + length < size) {
+                    usable = lastNewline(block, 0, length) + 1;
+                    if (usable == 0) {
+                        throw new IOException("Line longer than " + blockBytes + " bytes at line " + (lineBase + 1));
+                    }
+                }
+
+                for (Slice slice : parseBlock(block, usable)) {
+                    int[] remap = new int[slice.names.size()];
+                    for (int i = 0; i < remap.length; i++) {
+                        String name = slice.names.get(i);
+                        Integer id = ids.get(name);
+                        if (id == null) {
+                            id = names.size();
+                            ids.put(name, id);
+                            names.add(name);
+                        }
+                        remap[i] = id;
+                    }
+                    if ((long) edgeCount + slice.edgeCount > CompactGraph.MAX_EDGES) {
+                        throw new IOException("More than " + CompactGraph.MAX_EDGES + " edges at line "
+                                + (lineBase + slice.lineCount) + ": the CSR cannot hold them.");
+                    }
+                    if (edgeCount + slice.edgeCount > from.length) {
+                        int capacity = (int) Math.min(CompactGraph.MAX_EDGES,
+                                Math.max(2L * from.length, edgeCount + slice.edgeCount));
+                        from = Arrays.copyOf(from, capacity);
+                        to = Arrays.copyOf(to, capacity);
+                    }
+                    for (int i = 0; i < slice.edgeCount; i++) {
+                        from[edgeCount] = remap[slice.from[i]];
+                        to[edgeCount] = remap[slice.to[i]];
+                        edgeCount++;
+                    }
+                    for (ImportError error : slice.errors) {
+                        if (errors.size() == MAX_ERRORS) {
+                            break;
+                        }
+                        errors.add(new ImportError(lineBase + error.lineNumber(), error.line(), error.reason()));
+                    }
+                    errorCount += slice.errorCount;
+                    lineBase += slice.lineCount;
+                }
+                pos += usable;
+            }
+        }
+
+        CompactGraph graph = CompactGraph.fromEdges(names.toArray(new String[0]), from, to, edgeCount);
+        return new ImportResult(graph, errors, errorCount, edgeCount, System.nanoTime() - start);
+    }
+
+    // Cut [0, usable) into line-aligned slices and parse them on the pool, keeping file order
+    private List<Slice> parseBlock(byte[] block, int usable) throws IOException {
+        int sliceCount = Math.max(1, Math.min(parallelism * 4, usable / (64 << 10)));
+        List<Callable<Slice>> tasks = new ArrayList<>(sliceCount);
+        int sliceStart = 0;
+        for (int i = 1; i <= sliceCount && sliceStart < usable; i++) {
+            int sliceEnd = i == sliceCount ? usable : (int) ((long) usable * i / sliceCount);
+            if (sliceEnd < usable) {
+                int newline = nextNewline(block, sliceEnd, usable);
+                sliceEnd = newline < 0 ? usable : newline + 1;
+            }
+            int s = sliceStart;
+            int e = sliceEnd;
+            tasks.add(() -> parseSlice(block, s, e));
+            sliceStart = sliceEnd;
+        }
+
+        List<Slice> slices = new ArrayList<>(tasks.size());
+        try {
+            for (Future<Slice> future : pool.invokeAll(tasks)) {
+                slices.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Import interrupted.", e);
+        } catch (ExecutionException e) {
+            throw new IOException("Import failed.", e.getCause());
+        }
+        return slices;
+    }
+
+    private static Slice parseSlice(byte[] bytes, int start, int end) {
+        Slice slice = new Slice();
+        int lineStart = start;
+        while (lineStart < end) {
+            int lineEnd = nextNewline(bytes, lineStart, end);
+            if (lineEnd < 0) {
+                lineEnd = end;
+            }
+            slice.lineCount++;
+            parseLine(slice, bytes, lineStart, lineEnd);
+            lineStart = lineEnd + 1;
+        }
+        return slice;
+    }
+
+    // One line: two names separated by a comma, or by blanks when the line has no comma
+    private static void parseLine(Slice slice, byte[] bytes, int start, int end) {
+        while (start < end && isBlank(bytes[start])) {
+            start++;
+        }
+        while (end > start && (isBlank(bytes[end - 1]) || bytes[end - 1] == '\r')) {
+            end--;
+        }
+        if (start == end || bytes[start] == '#') {
+            return;
+        }
+
+        boolean csv = indexOf(bytes, start, end, (byte) ',') >= 0;
+        int split = csv ? indexOf(bytes, start, end, (byte) ',') : firstBlank(bytes, start, end);
+        if (split < 0) {
+            slice.error(bytes, start, end, "expected two node names");
+            return;
+        }
+        int aEnd = split;
+        while (aEnd > start && isBlank(bytes[aEnd - 1])) {
+            aEnd--;
+        }
+        int next = split + 1;
+        while (next < end && isBlank(bytes[next])) {
+            next++;
+        }
+        boolean extraField = csv ? indexOf(bytes, next, end, (byte) ',') >= 0 : firstBlank(bytes, next, end) >= 0;
+        if (aEnd == start || next == end || extraField) {
+            slice.error(bytes, start, end, "expected two node names");
+            return;
+        }
+
+        String a = text(bytes, start, aEnd);
+        String b = text(bytes, next, end);
+        if (a.equals(b)) {
+            slice.error(bytes, start, end, "self-loop");
+            return;
+        }
+        slice.addEdge(slice.intern(a), slice.intern(b));
+    }
+
+    private static String text(byte[] bytes, int start, int end) {
+        return new String(bytes, start, end - start, StandardCharsets.UTF_8);
+    }
+
+    private static int indexOf(byte[] bytes, int start, int end, byte value) {
+        for (int i = start; i < end; i++) {
+            if (bytes[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int firstBlank(byte[] bytes, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (isBlank(bytes[i])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static int nextNewline(byte[] bytes, int from, int end) {
+        return indexOf(bytes, from, end, (byte) '\n');
+    }
+
+    private static int lastNewline(byte[] bytes, int from, int end) {
+        for (int i = end - 1; i >= from; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Parse output of one slice; ids and line numbers are local to the slice
+    private static final class Slice {
+        final Map<String, Integer> ids = new HashMap<>();
+        final List<String> names = new ArrayList<>();
+        final List<ImportError> errors = new ArrayList<>(); // First MAX_ERRORS of the slice
+        long errorCount;
+        int[] from = new int[256];
+        int[] to = new int[256];
+        int edgeCount;
+        long lineCount;
+
+        int intern(String name) {
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = names.size();
+                ids.put(name, id);
+                names.add(name);
+            }
+            return id;
+        }
+
+        // Count a bad line; only the first MAX_ERRORS keep their (truncated) text
+        void error(byte[] bytes, int start, int end, String reason) {
+            errorCount++;
+            if (errors.size() < MAX_ERRORS) {
+                String line = end - start > MAX_ERROR_TEXT
+                        ? text(bytes, start, start + MAX_ERROR_TEXT) + "..." : text(bytes, start, end);
+                errors.add(new ImportError(lineCount, line, reason));
+            }
+        }
+
+        void addEdge(int a, int b) {
+            if (edgeCount == from.length) {
+                from = Arrays.copyOf(from, edgeCount * 2);
+                to = Arrays.copyOf(to, edgeCount * 2);
+            }
+            from[edgeCount] = a;
+            to[edgeCount] = b;
+            edgeCount++;
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -1,9 +1,11 @@
 import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.stream.Stream;
 import java.awt.Point;
 
 // Feature 2: Core graph structure logic for storing nodes and edges
-// Note: BFS assumes all edges have equal weight (unweighted graph).
-// No need to store weights since BFS finds the shortest path based on hop count, not edge cost.
+// Note: BFS assumes all edges have equal weight (unweighted graph) and ignores weights.
+// Edges default to weight 1.0; only other weights are stored, for the weighted routers (DijkstraRouter).
 // Feature 7: Allows dynamic changes in topology (add/remove nodes and edges)
 public class Graph {
     // Adjacency list to store nodes and their connections
@@ -12,9 +14,34 @@ public class Graph {
     // Node positions for GUI (x, y) - supports Feature 6: Visualization
     private final Map<String, Point> nodePositions;
 
+    // Non-unit edge weights, stored under both endpoints; CompactGraph copies them into a double[]
+    private final Map<String, EdgeWeights> edgeWeights;
+
+    // Feature 7: Subscribers notified of topology changes
+    private final List<GraphListener> listeners;
+
+    // Modification version, bumped by every topology change; caches compare it to detect staleness
+    private long version;
+
+    // Last snapshot() result and the version it was taken at
+    private CompactGraph snapshot;
+    private long snapshotVersion = -1;
+
     public Graph() {
         adjList = new HashMap<>();
         nodePositions = new HashMap<>();
+        edgeWeights = new HashMap<>();
+        listeners = new ArrayList<>();
+    }
+
+    // Feature 7: Subscribe to topology changes
+    public void addListener(GraphListener listener) {
+        listeners.add(listener);
+    }
+
+    // Feature 7: Unsubscribe from topology changes
+    public void removeListener(GraphListener listener) {
+        listeners.remove(listener);
     }
 
     // Feature 2 + 7: Add a node to the graph
@@ -23,7 +50,13 @@ public class Graph {
             System.out.println("Invalid node name.");
             return;
         }
-        adjList.putIfAbsent(node.trim(), new HashSet<>());
+        String name = node.trim();
+        if (adjList.putIfAbsent(name, new HashSet<>()) == null) {
+            version++;
+            for (GraphListener listener : listeners) {
+                listener.nodeAdded(name);
+            }
+        }
     }
 
     // Feature 7: Remove a node and its edges
@@ -32,10 +65,36 @@ public class Graph {
             System.out.println("Node does not exist.");
             return;
         }
-        adjList.remove(node);
+        detachNode(node);
+    }
+
+    // Feature 7: Remove many nodes at once (bulk decommission); nodes that do not exist are skipped
+    public void removeNodes(Collection<String> nodes) {
+        for (String node : nodes) {
+            if (adjList.containsKey(node)) {
+                detachNode(node);
+            }
+        }
+    }
+
+    // Removal touches only the node's own neighbors: O(degree), not O(V)
+    private void detachNode(String node) {
+        Set<String> removed = adjList.remove(node);
+        version++;
         nodePositions.remove(node);
-        for (Set<String> neighbors : adjList.values()) {
-            neighbors.remove(node);
+        for (String neighbor : removed) {
+            adjList.get(neighbor).remove(node);
+        }
+        if (edgeWeights.remove(node) != null) {
+            for (String neighbor : removed) {
+                clearWeight(neighbor, node);
+            }
+        }
+        for (GraphListener listener : listeners) {
+            for (String neighbor : removed) {
+                listener.edgeRemoved(node, neighbor);
+            }
+            listener.nodeRemoved(node);
         }
     }
 
@@ -49,8 +108,57 @@ public class Graph {
             System.out.println("One or both nodes do not exist.");
             return;
         }
-        adjList.get(from).add(to);
-        adjList.get(to).add(from);
+        if (adjList.get(from).add(to)) {
+            adjList.get(to).add(from);
+            version++;
+            for (GraphListener listener : listeners) {
+                listener.edgeAdded(from, to);
+            }
+        }
+    }
+
+    // Feature 2 + 7: Add a weighted undirected edge (latency, cost, ...), or re-weight an existing one
+    public void addEdge(String from, String to, double weight) {
+        if (!(weight > 0) || Double.isInfinite(weight)) {
+            System.out.println("Invalid edge weight.");
+            return;
+        }
+        addEdge(from, to);
+        if (!isConnected(from, to) || getWeight(from, to) == weight) {
+            return;
+        }
+        if (weight == 1.0) {
+            clearWeight(from, to);
+            clearWeight(to, from);
+        } else {
+            edgeWeights.computeIfAbsent(from, k -> new EdgeWeights()).put(to, weight);
+            edgeWeights.computeIfAbsent(to, k -> new EdgeWeights()).put(from, weight);
+        }
+        version++;
+        for (GraphListener listener : listeners) {
+            listener.edgeWeightChanged(from, to, weight);
+        }
+    }
+
+    // Helper: Weight of an edge (1.0 unless set otherwise), or NaN if the nodes are not connected
+    public double getWeight(String from, String to) {
+        if (!isConnected(from, to)) {
+            return Double.NaN;
+        }
+        EdgeWeights weights = edgeWeights.get(from);
+        return weights == null ? 1.0 : weights.get(to);
+    }
+
+    // Helper: True if any edge has a weight other than 1.0
+    public boolean isWeighted() {
+        return !edgeWeights.isEmpty();
+    }
+
+    private void clearWeight(String from, String to) {
+        EdgeWeights weights = edgeWeights.get(from);
+        if (weights != null && weights.remove(to) && weights.isEmpty()) {
+            edgeWeights.remove(from);
+        }
     }
 
     // Feature 7: Remove an edge between two nodes
@@ -59,13 +167,20 @@ public class Graph {
             System.out.println("One or both nodes do not exist.");
             return;
         }
-        adjList.get(from).remove(to);
-        adjList.get(to).remove(from);
+        if (adjList.get(from).remove(to)) {
+            adjList.get(to).remove(from);
+            clearWeight(from, to);
+            clearWeight(to, from);
+            version++;
+            for (GraphListener listener : listeners) {
+                listener.edgeRemoved(from, to);
+            }
+        }
     }
 
     // Helper: Return neighbors of a node
     public Set<String> getNeighbors(String node) {
-        return adjList.getOrDefault(node, Collections.emptySet());
+        return Collections.unmodifiableSet(adjList.getOrDefault(node, Collections.emptySet()));
     }
 
     // Helper: Check node existence
@@ -73,9 +188,15 @@ public class Graph {
         return adjList.containsKey(node);
     }
 
-    // Helper: Return all nodes
+    // Helper: Return all nodes (a read-only copy, in the graph's iteration order)
     public Set<String> getAllNodes() {
-        return adjList.keySet();
+        return Collections.unmodifiableSet(new LinkedHashSet<>(adjList.keySet()));
+    }
+
+    // Helper: The live adjacency map, for CompactGraph.fromGraph to read without a copy or a wrapper per row;
+    // callers in this package must only read it, and not while another thread changes the graph
+    Map<String, Set<String>> adjacency() {
+        return adjList;
     }
 
     // Helper: Check if nodes are directly connected
@@ -87,24 +208,39 @@ public class Graph {
     // Helper: Return all edges
     public List<String[]> getAllEdges() {
         List<String[]> edges = new ArrayList<>();
-        Set<String> visited = new HashSet<>();
-        for (String from : adjList.keySet()) {
-            for (String to : adjList.get(from)) {
-                String key = from + "-" + to;
-                String reverseKey = to + "-" + from;
-                if (!visited.contains(reverseKey)) {
-                    edges.add(new String[]{from, to});
-                    visited.add(key);
+        forEachEdge((from, to) -> edges.add(new String[]{from, to}));
+        return edges;
+    }
+
+    // Helper: Visit every undirected edge exactly once
+    // Each edge is stored in both endpoint sets; it is reported only from the endpoint whose name
+    // sorts first, so no auxiliary set or key strings are needed.
+    public void forEachEdge(BiConsumer<String, String> action) {
+        for (Map.Entry<String, Set<String>> entry : adjList.entrySet()) {
+            String from = entry.getKey();
+            for (String to : entry.getValue()) {
+                if (from.compareTo(to) < 0) {
+                    action.accept(from, to);
                 }
             }
         }
-        return edges;
+    }
+
+    // Helper: Lazy stream of every undirected edge exactly once, as {from, to} pairs
+    public Stream<String[]> edgeStream() {
+        return adjList.entrySet().stream().flatMap(entry -> {
+            String from = entry.getKey();
+            return entry.getValue().stream()
+                    .filter(to -> from.compareTo(to) < 0)
+                    .map(to -> new String[]{from, to});
+        });
     }
 
     // Feature 6: Store node positions for GUI visualization
     public void setNodePosition(String node, int x, int y) {
         if (hasNode(node)) {
             nodePositions.put(node, new Point(x, y));
+            snapshot = null; // Positions are copied into the snapshot, the topology version stays the same
         }
     }
 
@@ -118,6 +254,102 @@ public class Graph {
         return adjList.size();
     }
 
+    // Helper: Monotonically increasing modification version
+    public long getVersion() {
+        return version;
+    }
+
+    // Helper: Immutable int-indexed (CSR) snapshot of the current topology for fast routing
+    // Reuses the previous snapshot while the graph is unchanged.
+    public CompactGraph snapshot() {
+        if (snapshot == null || snapshotVersion != version) {
+            snapshot = CompactGraph.fromGraph(this);
+            snapshotVersion = version;
+        }
+        return snapshot;
+    }
+
+    // Non-unit weights of one node's edges, keyed by neighbor name
+    // Open addressing over parallel String[] / double[] arrays: a weighted edge costs one reference and one
+    // primitive double per endpoint, instead of a boxed Double and a HashMap entry.
+    private static final class EdgeWeights {
+        private String[] keys = new String[4];
+        private double[] values = new double[4];
+        private int size;
+
+        // Weight stored for neighbor, 1.0 if none
+        double get(String neighbor) {
+            int mask = keys.length - 1;
+            for (int i = slot(neighbor, mask); keys[i] != null; i = (i + 1) & mask) {
+                if (keys[i].equals(neighbor)) {
+                    return values[i];
+                }
+            }
+            return 1.0;
+        }
+
+        void put(String neighbor, double weight) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int i = slot(neighbor, mask);
+            while (keys[i] != null && !keys[i].equals(neighbor)) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == null) {
+                keys[i] = neighbor;
+                size++;
+            }
+            values[i] = weight;
+        }
+
+        // Backward-shift deletion keeps every probe chain unbroken without tombstones
+        boolean remove(String neighbor) {
+            int mask = keys.length - 1;
+            int i = slot(neighbor, mask);
+            while (keys[i] != null && !keys[i].equals(neighbor)) {
+                i = (i + 1) & mask;
+            }
+            if (keys[i] == null) {
+                return false;
+            }
+            for (int next = (i + 1) & mask; keys[next] != null; next = (next + 1) & mask) {
+                int home = slot(keys[next], mask);
+                if (((next - home) & mask) >= ((next - i) & mask)) {
+                    keys[i] = keys[next];
+                    values[i] = values[next];
+                    i = next;
+                }
+            }
+            keys[i] = null;
+            size--;
+            return true;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        private static int slot(String key, int mask) {
+            int h = key.hashCode();
+            return (h ^ (h >>> 16)) & mask;
+        }
+
+        private void resize() {
+            String[] oldKeys = keys;
+            double[] oldValues = values;
+            keys = new String[oldKeys.length * 2];
+            values = new double[oldKeys.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != null) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+    }
+
     // Helper: Graph structure as string (useful for testing/debugging)
     @Override
     public String toString() {
@@ -3,27 +3,26 @@ import javafx.application.Application;
 import javafx.geometry.Insets;
 import javafx.scene.Scene;
 import javafx.scene.control.*;
-import javafx.scene.input.MouseButton;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
-import javafx.scene.shape.Line;
-import javafx.scene.text.Font;
 import javafx.stage.Stage;
 import java.util.*;
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
-import javafx.scene.effect.DropShadow;
-import javafx.util.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 // Main application class for the Graph BFS Visualizer
 public class GraphBFSApp extends Application {
     // Core graph logic and router instance
     private final Graph graph = new Graph();                      // ✅ Feature 1: Routing Algorithm Simulator Core
-    private BFSRouter bfsRouter = new BFSRouter(graph);          // ✅ Feature 4: Implements and simulates the BFS routing algorithm
+    private final ExecutorService worker = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "graph-worker");                // ✅ Feature 4: Routing and layout run off the UI thread
+        t.setDaemon(true);
+        return t;
+    });
 
     // UI components
-    private final Pane graphPane = new Pane();                   // ✅ Feature 6: Graph visualization pane
+    private final GraphCanvas graphPane = new GraphCanvas();     // ✅ Feature 6: Canvas graph view (culling, level of detail)
     private final TextArea logArea = new TextArea();             // ✅ Feature 8: Logs routing decisions
     private final ComboBox<String> sourceBox = new ComboBox<>(); // ✅ Feature 3: Source node selection
     private final ComboBox<String> destBox = new ComboBox<>();   // ✅ Feature 3: Destination node selection
@@ -32,12 +31,14 @@ public class GraphBFSApp extends Application {
     private final TextField edgeToField = new TextField();       // ✅ Feature 2 & 7: Edge input (to)
 
     // Constants
-    private static final int NODE_RADIUS = 22;
     private static final int ANIMATION_DELAY_MS = 400;
+    private static final int MAX_ANIMATION_MS = 15000;
+    private static final int PROGRESS_BATCHES = 64; // Bound of the visit-order queue between RoutingTask and UI
 
-    // UI tracking maps
-    private final Map<String, Circle> nodeCircles = new HashMap<>();
-    private final Map<String, Label> nodeLabels = new HashMap<>();
+    // Background work and traversal replay in flight, if any
+    private RoutingTask routingTask;
+    private LayoutTask layoutTask;
+    private TraversalAnimation animation;
 
     // Entry point for JavaFX application
     @Override
@@ -81,8 +82,13 @@ public class GraphBFSApp extends Application {
         bfsBtn.setPrefSize(240, 54);
         bfsBtn.setStyle(bfsBtn.getStyle() + ";-fx-font-size: 20px; -fx-font-weight: 800;");
 
+        // Cancel a running BFS
+        Button cancelBtn = btn("Cancel", e -> cancelRouting());
+        cancelBtn.setPrefHeight(54);
+        HBox runBox = new HBox(10, bfsBtn, cancelBtn);
+
         // Add control sections to controlsBox
-        controlsBox.getChildren().addAll(nodeBox, edgeBox, srcDestBox, bfsBtn);
+        controlsBox.getChildren().addAll(nodeBox, edgeBox, srcDestBox, runBox);
 
         // Log area for BFS output
         VBox logBox = new VBox();
@@ -134,10 +140,6 @@ public class GraphBFSApp extends Application {
         VBox.setVgrow(sourceBox, Priority.ALWAYS);
         VBox.setVgrow(destBox, Priority.ALWAYS);
         VBox.setVgrow(logArea, Priority.ALWAYS);
-
-        // Redraw graph on window resize
-        graphPane.widthProperty().addListener((obs, oldVal, newVal) -> updateGraphView()); // ✅ Feature 6
-        graphPane.heightProperty().addListener((obs, oldVal, newVal) -> updateGraphView());
     }
 
     private Button btn(String text, javafx.event.EventHandler<javafx.event.ActionEvent> handler) {
@@ -179,7 +181,7 @@ public class GraphBFSApp extends Application {
             return;
         }
         graph.addEdge(from, to); // ✅ Feature 2 & 7
-        updateGraphView();
+        refreshGraphView();
         edgeFromField.clear();
         edgeToField.clear();
     }
@@ -192,11 +194,12 @@ public class GraphBFSApp extends Application {
             return;
         }
         graph.removeEdge(from, to); // ✅ Feature 7
-        updateGraphView();
+        refreshGraphView();
         edgeFromField.clear();
         edgeToField.clear();
     }
 
+    // Feature 4: BFS runs as a background task on the snapshot on screen; the replay follows its progress
     private void runBFS() {
         String src = sourceBox.getValue();
         String dst = destBox.getValue();
@@ -204,56 +207,58 @@ public class GraphBFSApp extends Application {
             showError("Select valid source and destination nodes."); // ✅ Feature 9: Handles invalid selections (edge case)
             return;
         }
-        bfsRouter = new BFSRouter(graph); // ✅ Feature 4
-        List<String> path = bfsRouter.runBFS(src, dst); // ✅ Feature 5: Display shortest path
-        logArea.clear();
-        bfsRouter.getLogs().forEach(log -> logArea.appendText(log + "\n")); // ✅ Feature 8
-        animateTraversal(bfsRouter.getVisitedOrder(), path); // ✅ Feature 6
-    }
-
-    private void animateTraversal(List<String> visited, List<String> path) {
-        nodeCircles.values().forEach(c -> {
-            c.setFill(Color.web("#23272e"));
-            c.setStroke(Color.web("#bd976d"));
-            c.setEffect(null);
+        CompactGraph shown = graphPane.getGraph();
+        if (shown == null || (layoutTask != null && !layoutTask.isDone())) {
+            showError("Graph layout is still being computed.");
+            return;
+        }
+        cancelRouting();
+
+        BlockingQueue<int[]> progress = new ArrayBlockingQueue<>(PROGRESS_BATCHES);
+        RoutingTask task = new RoutingTask(shown, src, dst, progress);
+        TraversalAnimation replay = new TraversalAnimation(graphPane, progress, ANIMATION_DELAY_MS, MAX_ANIMATION_MS);
+        routingTask = task;
+        animation = replay;
+        logArea.setText("Running BFS from " + src + " to " + dst + "...\n");
+
+        task.setOnSucceeded(e -> {
+            if (task != routingTask) {
+                return; // Cancelled after it finished
+            }
+            RoutingTask.Result result = task.getValue();
+            logArea.setText(result.log());                               // ✅ Feature 8: Log rendered and capped off the UI thread
+            replay.finish(toIds(shown, result.path()));                  // ✅ Feature 5: Path shown after the replay
         });
+        task.setOnFailed(e -> {
+            replay.stop();
+            showError("BFS failed: " + task.getException().getMessage());
+        });
+        replay.start(); // ✅ Feature 6
+        worker.submit(task);
+    }
 
-        Set<String> pathSet = path == null ? Collections.emptySet() : new HashSet<>(path);
-        Timeline timeline = new Timeline();
-
-        for (int i = 0; i < visited.size(); i++) {
-            final int idx = i;
-            KeyFrame kf = new KeyFrame(Duration.millis(ANIMATION_DELAY_MS * (i + 1)), e -> {
-                for (int j = 0; j <= idx; j++) {
-                    String v = visited.get(j);
-                    Circle c = nodeCircles.get(v);
-                    if (c != null) {
-                        c.setFill(Color.web("#bd976d"));
-                        c.setStroke(Color.web("#fff7e1"));
-                        c.setEffect(new DropShadow(30, Color.web("#bd976d")));
-                    }
-                }
-            });
-            timeline.getKeyFrames().add(kf);
+    // Stop the running BFS and its replay; the bounded progress queue is abandoned with them
+    private void cancelRouting() {
+        if (routingTask != null && routingTask.isRunning()) {
+            routingTask.cancel(true);
+            logArea.appendText("BFS cancelled.\n");
+        }
+        routingTask = null;
+        if (animation != null) {
+            animation.stop();
+            animation = null;
         }
+    }
 
-        KeyFrame endFrame = new KeyFrame(Duration.millis(ANIMATION_DELAY_MS * (visited.size() + 1)), e -> {
-            nodeCircles.values().forEach(c -> {
-                c.setFill(Color.web("#23272e"));
-                c.setStroke(Color.web("#bd976d"));
-                c.setEffect(null);
-            });
-            for (String v : pathSet) {
-                Circle c = nodeCircles.get(v);
-                if (c != null) {
-                    c.setFill(Color.web("#bd976d"));
-                    c.setStroke(Color.web("#fff7e1"));
-                    c.setEffect(new DropShadow(40, Color.web("#bd976d")));
-                }
-            }
-        });
-        timeline.getKeyFrames().add(endFrame);
-        timeline.play();
+    private static int[] toIds(CompactGraph graph, List<String> nodes) {
+        if (nodes == null) {
+            return new int[0];
+        }
+        int[] ids = new int[nodes.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = graph.idOf(nodes.get(i));
+        }
+        return ids;
     }
 
     private void updateNodeBoxes() {
@@ -263,54 +268,38 @@ public class GraphBFSApp extends Application {
         destBox.getItems().setAll(nodes);   // ✅ Feature 3
     }
 
+    // Nodes changed: circular layout as a background task, then fit the view
+    // The positions stay in the laid-out snapshot handed to the canvas; they are not written back to the Graph.
     private void updateGraphView() {
-        graphPane.getChildren().clear();
-        nodeCircles.clear();
-        nodeLabels.clear();
-
-        List<String> nodes = new ArrayList<>(graph.getAllNodes());
-        int n = nodes.size();
-        double centerX = graphPane.getWidth() / 2;
-        double centerY = graphPane.getHeight() / 2;
-        double radius = Math.min(centerX, centerY) - 60;
-        radius = Math.max(radius, 60);
-
-        for (int i = 0; i < n; i++) {
-            double angle = 2 * Math.PI * i / n;
-            int x = (int) (centerX + radius * Math.cos(angle));
-            int y = (int) (centerY + radius * Math.sin(angle));
-            graph.setNodePosition(nodes.get(i), x, y);
+        cancelRouting();
+        if (layoutTask != null) {
+            layoutTask.cancel(true);
         }
-
-        for (String[] edge : graph.getAllEdges()) {
-            java.awt.Point pf = graph.getNodePosition(edge[0]);
-            java.awt.Point pt = graph.getNodePosition(edge[1]);
-            if (pf != null && pt != null) {
-                Line line = new Line(pf.x, pf.y, pt.x, pt.y);
-                line.setStroke(Color.web("#a68a5b"));
-                line.setStrokeWidth(2.5);
-                graphPane.getChildren().add(line);
+        LayoutTask task = new LayoutTask(graph.snapshot());
+        layoutTask = task;
+        task.setOnSucceeded(e -> {
+            if (task != layoutTask) {
+                return; // A newer layout is on its way
             }
-        }
+            graphPane.setGraph(task.getValue(), true);
+        });
+        task.setOnFailed(e -> showError("Layout failed: " + task.getException().getMessage()));
+        worker.submit(task);
+    }
 
-        for (String node : nodes) {
-            java.awt.Point p = graph.getNodePosition(node);
-            if (p == null) continue;
-            Circle c = new Circle(p.x, p.y, NODE_RADIUS);
-            c.setFill(Color.web("#23272e"));
-            c.setStroke(Color.web("#bd976d"));
-            c.setStrokeWidth(2.5);
-            nodeCircles.put(node, c);
-            graphPane.getChildren().add(c);
-
-            Label lbl = new Label(node);
-            lbl.setFont(Font.font("Segoe UI", 15));
-            lbl.setStyle("-fx-text-fill: #f5f5f4; -fx-font-weight: bold;");
-            lbl.setLayoutX(p.x - 12);
-            lbl.setLayoutY(p.y - 12);
-            nodeLabels.put(node, lbl);
-            graphPane.getChildren().add(lbl);
+    // Edges changed: same layout and viewport, new snapshot
+    // Edge changes keep the node set, so the new snapshot numbers nodes like the one on screen and
+    // takes over its positions as they are.
+    private void refreshGraphView() {
+        cancelRouting();
+        CompactGraph shown = graphPane.getGraph();
+        CompactGraph next = graph.snapshot();
+        if ((layoutTask != null && layoutTask.isRunning()) || shown == null || shown.xs == null
+                || shown.getNodeCount() != next.getNodeCount()) {
+            updateGraphView(); // No finished layout to reuse
+            return;
         }
+        graphPane.setGraph(next.withPositions(shown.xs, shown.ys), false);
     }
 
     private void showError(String msg) {
@@ -0,0 +1,312 @@
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import java.util.Arrays;
+
+// Feature 6: Canvas-based graph view for large graphs
+// Draws a CompactGraph snapshot straight onto one Canvas instead of keeping a Circle/Label/Line scene-graph
+// node per element:
+//  - Culling: nodes and edges outside the viewport are skipped before any drawing call
+//  - Level of detail: all edges go into one path stroked once; nodes become plain dots when they are smaller
+//    than a few pixels, and labels are only drawn when nodes are large and few enough to read them
+//  - Incremental redraw: state changes (visited, on path) repaint only the changed nodes; full repaints
+//    happen only on graph, viewport or size changes, at most once per pulse
+// Scroll zooms around the cursor, dragging pans, double-click fits the graph to the view.
+public class GraphCanvas extends Region {
+    public static final byte NORMAL = 0;
+    public static final byte VISITED = 1;
+    public static final byte ON_PATH = 2;
+
+    private static final double NODE_RADIUS = 22;
+    private static final double MARGIN = 60;
+    private static final double DOT_RADIUS = 4;        // Below this on-screen radius nodes are drawn as dots
+    private static final double LABEL_RADIUS = 10;     // Labels need at least this on-screen radius...
+    private static final int LABEL_LIMIT = 1500;       // ...and at most this many visible nodes
+
+    private static final Color NODE_FILL = Color.web("#23272e");
+    private static final Color NODE_STROKE = Color.web("#bd976d");
+    private static final Color LIT_FILL = Color.web("#bd976d");
+    private static final Color LIT_STROKE = Color.web("#fff7e1");
+    private static final Color GLOW = Color.web("#bd976d", 0.25);
+    private static final Color EDGE = Color.web("#a68a5b");
+    private static final Color LABEL = Color.web("#f5f5f4");
+    private static final Font LABEL_FONT = Font.font("Segoe UI", FontWeight.BOLD, 15);
+
+    private final Canvas canvas = new Canvas();
+    private final AnimationTimer pulse;
+
+    private CompactGraph graph;
+    private byte[] states = new byte[0];
+    private double[] screenX = new double[0];
+    private double[] screenY = new double[0];
+
+    // Viewport: screen = (world - origin) * scale
+    private double originX;
+    private double originY;
+    private double scale = 1;
+    private boolean fitPending = true;
+
+    private boolean fullRedraw;
+    private int[] dirty = new int[64];
+    private int dirtyCount;
+    private boolean labelsShown;
+
+    private double dragX;
+    private double dragY;
+
+    public GraphCanvas() {
+        canvas.setManaged(false);
+        getChildren().add(canvas);
+        pulse = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                draw();
+            }
+        };
+
+        setOnScroll(e -> {
+            double factor = Math.pow(1.1, e.getDeltaY() / 40);
+            zoomAt(e.getX(), e.getY(), factor);
+        });
+        setOnMousePressed(e -> {
+            dragX = e.getX();
+            dragY = e.getY();
+        });
+        setOnMouseDragged(e -> {
+            originX -= (e.getX() - dragX) / scale;
+            originY -= (e.getY() - dragY) / scale;
+            dragX = e.getX();
+            dragY = e.getY();
+            redrawAll();
+        });
+        setOnMouseClicked(e -> {
+            if (e.getButton() == MouseButton.PRIMARY && e.getClickCount() == 2) {
+                fitToView();
+            }
+        });
+    }
+
+    // Show a new snapshot; positions come from CompactGraph xs/ys (nodes without a position are not drawn)
+    public void setGraph(CompactGraph graph, boolean fit) {
+        this.graph = graph;
+        int n = graph.getNodeCount();
+        states = new byte[n];
+        screenX = new double[n];
+        screenY = new double[n];
+        dirtyCount = 0;
+        if (fit) {
+            fitToView();
+        } else {
+            redrawAll();
+        }
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // Change the state of one node; repainted on the next pulse without a full redraw
+    public void setState(int node, byte state) {
+        if (states[node] == state) {
+            return;
+        }
+        states[node] = state;
+        if (dirtyCount == dirty.length) {
+            dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+        }
+        dirty[dirtyCount++] = node;
+        pulse.start();
+    }
+
+    public void resetStates() {
+        Arrays.fill(states, NORMAL);
+        redrawAll();
+    }
+
+    public void fitToView() {
+        fitPending = true;
+        redrawAll();
+    }
+
+    private void redrawAll() {
+        fullRedraw = true;
+        pulse.start();
+    }
+
+    private void zoomAt(double x, double y, double factor) {
+        double worldX = originX + x / scale;
+        double worldY = originY + y / scale;
+        scale *= factor;
+        originX = worldX - x / scale;
+        originY = worldY - y / scale;
+        redrawAll();
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double w = getWidth();
+        double h = getHeight();
+        if (canvas.getWidth() != w || canvas.getHeight() != h) {
+            canvas.setWidth(w);
+            canvas.setHeight(h);
+            redrawAll();
+        }
+    }
+
+    // Helper: Scale and origin so every positioned node fits inside the view with a margin
+    private void fit(double w, double h) {
+        float[] xs = graph == null ? null : graph.xs;
+        double minX = Double.POSITIVE_INFINITY, minY = Double.POSITIVE_INFINITY;
+        double maxX = Double.NEGATIVE_INFINITY, maxY = Double.NEGATIVE_INFINITY;
+        if (xs != null) {
+            for (int v = 0; v < xs.length; v++) {
+                if (!Float.isNaN(xs[v])) {
+                    minX = Math.min(minX, xs[v]);
+                    maxX = Math.max(maxX, xs[v]);
+                    minY = Math.min(minY, graph.ys[v]);
+                    maxY = Math.max(maxY, graph.ys[v]);
+                }
+            }
+        }
+        if (minX > maxX) {
+            scale = 1;
+            originX = 0;
+            originY = 0;
+            return;
+        }
+        double spanX = maxX - minX;
+        double spanY = maxY - minY;
+        double availableX = Math.max(w - 2 * MARGIN, 1);
+        double availableY = Math.max(h - 2 * MARGIN, 1);
+        scale = Math.min(spanX > 0 ? availableX / spanX : 1, spanY > 0 ? availableY / spanY : 1);
+        originX = (minX + maxX) / 2 - w / 2 / scale;
+        originY = (minY + maxY) / 2 - h / 2 / scale;
+    }
+
+    private void draw() {
+        double w = canvas.getWidth();
+        double h = canvas.getHeight();
+        if (graph == null || w <= 0 || h <= 0) {
+            return;
+        }
+        if (fitPending) {
+            fit(w, h);
+            fitPending = false;
+        }
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double r = NODE_RADIUS * scale;
+        if (fullRedraw) {
+            fullRedraw = false;
+            dirtyCount = 0;
+            drawAll(gc, w, h, r);
+            return;
+        }
+        // Incremental: paint changed nodes on top of the last frame
+        for (int i = 0; i < dirtyCount; i++) {
+            int v = dirty[i];
+            if (v < states.length && isVisible(v, w, h, r)) {
+                drawNode(gc, v, r, labelsShown);
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    private void drawAll(GraphicsContext gc, double w, double h, double r) {
+        gc.clearRect(0, 0, w, h);
+        int n = graph.getNodeCount();
+        float[] xs = graph.xs;
+        float[] ys = graph.ys;
+        if (xs == null) {
+            return;
+        }
+
+        int visible = 0;
+        for (int v = 0; v < n; v++) {
+            screenX[v] = (xs[v] - originX) * scale;
+            screenY[v] = (ys[v] - originY) * scale;
+            if (isVisible(v, w, h, r)) {
+                visible++;
+            }
+        }
+
+        // Edges: one path, each undirected edge once, skipped if its bounding box misses the view
+        gc.setStroke(EDGE);
+        gc.setLineWidth(Math.max(0.5, Math.min(2.5, 2.5 * scale)));
+        gc.beginPath();
+        int[] offsets = graph.offsets;
+        int[] targets = graph.targets;
+        for (int u = 0; u < n; u++) {
+            double x1 = screenX[u];
+            double y1 = screenY[u];
+            if (Double.isNaN(x1)) {
+                continue;
+            }
+            for (int e = offsets[u], end = offsets[u + 1]; e < end; e++) {
+                int v = targets[e];
+                double x2 = screenX[v];
+                double y2 = screenY[v];
+                if (v < u || Double.isNaN(x2)
+                        || Math.max(x1, x2) < 0 || Math.min(x1, x2) > w
+                        || Math.max(y1, y2) < 0 || Math.min(y1, y2) > h) {
+                    continue;
+                }
+                gc.moveTo(x1, y1);
+                gc.lineTo(x2, y2);
+            }
+        }
+        gc.stroke();
+
+        // Nodes: highlighted ones last so they stay on top
+        labelsShown = r >= LABEL_RADIUS && visible <= LABEL_LIMIT;
+        for (int pass = NORMAL; pass <= ON_PATH; pass++) {
+            for (int v = 0; v < n; v++) {
+                if (states[v] == pass && isVisible(v, w, h, r)) {
+                    drawNode(gc, v, r, labelsShown);
+                }
+            }
+        }
+    }
+
+    private boolean isVisible(int v, double w, double h, double r) {
+        double x = screenX[v];
+        double y = screenY[v];
+        return x >= -r && x <= w + r && y >= -r && y <= h + r; // False for NaN
+    }
+
+    private void drawNode(GraphicsContext gc, int v, double r, boolean label) {
+        double x = screenX[v];
+        double y = screenY[v];
+        boolean lit = states[v] != NORMAL;
+        if (r < DOT_RADIUS) {
+            double size = Math.max(1.5, 2 * r);
+            gc.setFill(lit ? LIT_STROKE : NODE_STROKE);
+            gc.fillRect(x - size / 2, y - size / 2, size, size);
+            return;
+        }
+        if (lit) {
+            double glow = r * (states[v] == ON_PATH ? 1.8 : 1.5);
+            gc.setFill(GLOW);
+            gc.fillOval(x - glow, y - glow, 2 * glow, 2 * glow);
+        }
+        gc.setFill(lit ? LIT_FILL : NODE_FILL);
+        gc.fillOval(x - r, y - r, 2 * r, 2 * r);
+        gc.setStroke(lit ? LIT_STROKE : NODE_STROKE);
+        gc.setLineWidth(Math.min(2.5, 2.5 * r / NODE_RADIUS));
+        gc.strokeOval(x - r, y - r, 2 * r, 2 * r);
+        if (label) {
+            gc.setFill(LABEL);
+            gc.setFont(LABEL_FONT);
+            gc.setTextAlign(TextAlignment.CENTER);
+            gc.setTextBaseline(VPos.CENTER);
+            gc.fillText(graph.names[v], x, y);
+        }
+    }
+}
@@ -0,0 +1,243 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+// Compact binary on-disk format for CompactGraph, opened through FileChannel.map
+// Layout (little-endian):
+//   int magic, int formatVersion, int nodeCount, int targetCount, long stringTableBytes, int flags, int reserved
+//   int[nodeCount + 1] offsets          CSR row starts
+//   int[targetCount]   targets          CSR neighbor ids
+//   int[nodeCount + 1] nameOffsets      byte offset of each name in the string table
+//   int[nodeCount]     byName           node ids ordered by the unsigned bytes of their UTF-8 name
+//   double[targetCount] weights         weight of each targets entry, only if flags has FLAG_WEIGHTS
+//   byte[stringTableBytes]              UTF-8 node names, back to back
+// map() opens a file in O(1): the sections stay in the page cache and are read in place by MappedGraph,
+// names are decoded only when asked for, and byName serves name lookups by binary search.
+// load() copies everything into a heap CompactGraph (for the engines that need arrays, e.g. DijkstraRouter
+// on the weights) and validates every offset, target, weight and the byName order while doing so.
+public final class GraphFile {
+    static final int MAGIC = 0x47524146; // "GRAF"
+    static final int FORMAT_VERSION = 2;
+    static final int FLAG_WEIGHTS = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int WINDOW_BITS = 28; // Ints per mapped window: 1 GB regions
+    private static final int DOUBLE_WINDOW_BITS = 27;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private GraphFile() {
+    }
+
+    // Write the current topology and edge weights of a Graph
+    public static void write(Graph graph, Path file) throws IOException {
+        write(graph.snapshot(), file);
+    }
+
+    public static void write(CompactGraph graph, Path file) throws IOException {
+        int n = graph.getNodeCount();
+        byte[][] encoded = new byte[n][];
+        int[] nameOffsets = new int[n + 1];
+        long tableBytes = 0;
+        for (int i = 0; i < n; i++) {
+            encoded[i] = graph.names[i].getBytes(StandardCharsets.UTF_8);
+            tableBytes += encoded[i].length;
+            if (tableBytes > Integer.MAX_VALUE) {
+                throw new IOException("Node names exceed the 2 GB string table limit.");
+            }
+            nameOffsets[i + 1] = (int) tableBytes;
+        }
+        Integer[] sorted = new Integer[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = i;
+        }
+        Arrays.sort(sorted, (a, b) -> Arrays.compareUnsigned(encoded[a], encoded[b]));
+        int[] byName = new int[n];
+        for (int i = 0; i < n; i++) {
+            byName[i] = sorted[i];
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(n).putInt(graph.targets.length).putLong(tableBytes)
+                    .putInt(graph.weights != null ? FLAG_WEIGHTS : 0).putInt(0);
+            writeInts(channel, buffer, graph.offsets);
+            writeInts(channel, buffer, graph.targets);
+            writeInts(channel, buffer, nameOffsets);
+            writeInts(channel, buffer, byName);
+            if (graph.weights != null) {
+                for (double weight : graph.weights) {
+                    if (buffer.remaining() < 8) {
+                        flush(channel, buffer);
+                    }
+                    buffer.putDouble(weight);
+                }
+            }
+            for (byte[] name : encoded) {
+                for (int pos = 0; pos < name.length; ) {
+                    if (!buffer.hasRemaining()) {
+                        flush(channel, buffer);
+                    }
+                    int count = Math.min(buffer.remaining(), name.length - pos);
+                    buffer.put(name, pos, count);
+                    pos += count;
+                }
+            }
+            flush(channel, buffer);
+        }
+    }
+
+    // Open a graph file without reading it: checks the header and section sizes only, rows and names are
+    // checked as they are read (MappedGraph.verify() checks the whole file up front)
+    public static MappedGraph map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a graph file: " + file);
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported graph file version " + formatVersion + ": " + file);
+            }
+            int n = header.getInt();
+            int targetCount = header.getInt();
+            long tableBytes = header.getLong();
+            int flags = header.getInt();
+            boolean weighted = (flags & FLAG_WEIGHTS) != 0;
+            long expected = HEADER_BYTES + 4L * (3L * n + 2) + (weighted ? 12L : 4L) * targetCount + tableBytes;
+            if (n < 0 || n == Integer.MAX_VALUE || targetCount < 0 || tableBytes < 0 || (flags & ~FLAG_WEIGHTS) != 0
+                    || tableBytes > Integer.MAX_VALUE || channel.size() != expected) {
+                throw new IOException("Corrupt graph file: " + file);
+            }
+
+            long pos = HEADER_BYTES;
+            Ints offsets = mapInts(channel, pos, n + 1);
+            pos += 4L * (n + 1);
+            Ints targets = mapInts(channel, pos, targetCount);
+            pos += 4L * targetCount;
+            Ints nameOffsets = mapInts(channel, pos, n + 1);
+            pos += 4L * (n + 1);
+            Ints byName = mapInts(channel, pos, n);
+            pos += 4L * n;
+            Doubles weights = null;
+            if (weighted) {
+                weights = mapDoubles(channel, pos, targetCount);
+                pos += 8L * targetCount;
+            }
+            MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, pos, tableBytes);
+            if (offsets.get(0) != 0 || offsets.get(n) != targetCount
+                    || nameOffsets.get(0) != 0 || nameOffsets.get(n) != tableBytes) {
+                throw new IOException("Corrupt graph file: " + file);
+            }
+            return new MappedGraph(file, n, offsets, targets, nameOffsets, byName, weights, table);
+        }
+    }
+
+    // Read a whole graph file into a heap CompactGraph, validating every row, target, weight and name offset
+    public static CompactGraph load(Path file) throws IOException {
+        return map(file).toCompactGraph();
+    }
+
+    // Read-only int section of a mapped file, split into windows because one mapping holds at most 2 GB
+    // Absolute gets only, so one instance can be read from any number of threads.
+    static final class Ints {
+        private final IntBuffer[] windows;
+        final int length;
+
+        private Ints(IntBuffer[] windows, int length) {
+            this.windows = windows;
+            this.length = length;
+        }
+
+        int get(int index) {
+            return windows[index >>> WINDOW_BITS].get(index & ((1 << WINDOW_BITS) - 1));
+        }
+
+        // Helper: Bulk-copy the whole section onto the heap
+        int[] toArray() {
+            int[] values = new int[length];
+            for (int w = 0; w < windows.length; w++) {
+                IntBuffer window = windows[w];
+                window.get(0, values, w << WINDOW_BITS, window.limit());
+            }
+            return values;
+        }
+    }
+
+    // Read-only double section of a mapped file, in windows like Ints
+    static final class Doubles {
+        private final DoubleBuffer[] windows;
+        final int length;
+
+        private Doubles(DoubleBuffer[] windows, int length) {
+            this.windows = windows;
+            this.length = length;
+        }
+
+        double[] toArray() {
+            double[] values = new double[length];
+            for (int w = 0; w < windows.length; w++) {
+                DoubleBuffer window = windows[w];
+                window.get(0, values, w << DOUBLE_WINDOW_BITS, window.limit());
+            }
+            return values;
+        }
+    }
+
+    static Doubles mapDoubles(FileChannel channel, long pos, int count) throws IOException {
+        int windowDoubles = 1 << DOUBLE_WINDOW_BITS;
+        DoubleBuffer[] windows = new DoubleBuffer[(int) ((count + (long) windowDoubles - 1) >>> DOUBLE_WINDOW_BITS)];
+        for (int w = 0; w < windows.length; w++) {
+            long first = (long) w << DOUBLE_WINDOW_BITS;
+            int size = (int) Math.min(windowDoubles, count - first);
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, pos + 8L * first, 8L * size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+        }
+        return new Doubles(windows, count);
+    }
+
+    static Ints mapInts(FileChannel channel, long pos, int count) throws IOException {
+        int windowInts = 1 << WINDOW_BITS;
+        IntBuffer[] windows = new IntBuffer[(int) ((count + (long) windowInts - 1) >>> WINDOW_BITS)];
+        for (int w = 0; w < windows.length; w++) {
+            long first = (long) w << WINDOW_BITS;
+            int size = (int) Math.min(windowInts, count - first);
+            windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, pos + 4L * first, 4L * size)
+                    .order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        }
+        return new Ints(windows, count);
+    }
+
+    // Helper: Copy count ints starting at byte position pos
+    static int[] readInts(FileChannel channel, long pos, int count) throws IOException {
+        return mapInts(channel, pos, count).toArray();
+    }
+
+    static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values) throws IOException {
+        for (int value : values) {
+            if (buffer.remaining() < 4) {
+                flush(channel, buffer);
+            }
+            buffer.putInt(value);
+        }
+    }
+
+    static void flush(FileChannel channel, ByteBuffer buffer) throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
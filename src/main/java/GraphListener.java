@@ -0,0 +1,21 @@
+// Feature 7: Receives topology changes from a Graph
+// Callbacks fire after the change has been applied, and only for changes that actually happened.
+public interface GraphListener {
+    default void nodeAdded(String node) {
+    }
+
+    // Fired after edgeRemoved has been fired for every edge the node had
+    default void nodeRemoved(String node) {
+    }
+
+    default void edgeAdded(String from, String to) {
+    }
+
+    default void edgeRemoved(String from, String to) {
+    }
+
+    // Fired when Graph.addEdge(from, to, weight) changes the weight of an edge, after edgeAdded for a new edge
+    // The weight is the new one (1.0 when reset to the default). Hop-count listeners can ignore it.
+    default void edgeWeightChanged(String from, String to, double weight) {
+    }
+}
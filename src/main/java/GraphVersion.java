@@ -0,0 +1,277 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+// Feature 7: One immutable, published version of a VersionedGraph
+// A CSR base (CompactGraph) plus a copy-on-write overlay of replaced adjacency rows. The overlay is a
+// two-level page table: pages[id >>> PAGE_BITS][id & PAGE_MASK] is the node's current row, or null while
+// the base row still applies. A batch of mutations copies only the page table and the pages it touches,
+// so publishing costs O(touched rows + nodes / PAGE_SIZE), and older versions stay valid for their readers.
+// Nodes added after the base get ids from base.getNodeCount() upwards; removed nodes keep their id with the
+// TOMBSTONE row until the next compaction. Ids are only meaningful within one version; use names across versions.
+// Names of added nodes live in append-only chunks (and one append-only name -> id map) shared by every
+// version on the same base: a name, once given an id, keeps it until compaction, so a version only has to
+// ignore the entries past its own addedCount, and adding nodes never copies the names added before.
+// Topology only: BFS routing by hop count. Weights and positions of the base are not carried over.
+public final class GraphVersion implements Router {
+    static final int PAGE_BITS = 10;
+    static final int PAGE_SIZE = 1 << PAGE_BITS;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+    static final int[] TOMBSTONE = new int[0]; // Compared by identity
+    static final int[][][] NO_PAGES = new int[0][][];
+    static final String[][] NO_NAMES = new String[0][];
+
+    final long version;
+    final CompactGraph base;
+    final int[][][] pages;
+    final String[][] addedNames;              // Chunks of PAGE_SIZE names of ids base.getNodeCount() upwards
+    final int addedCount;                     // Added ids of this version, live or removed
+    final Map<String, Integer> addedIds;      // Shared by all versions on this base; may hold unpublished ids
+    final int overlayRows;                    // Non-null rows in pages, drives compaction
+    private final int nodeCount;              // Live nodes
+    private final int edgeCount;              // Undirected edges
+
+    private volatile CompactGraph compact;    // Materialized on first toCompactGraph()
+
+    GraphVersion(long version, CompactGraph base, int[][][] pages, String[][] addedNames, int addedCount,
+                 Map<String, Integer> addedIds, int overlayRows, int nodeCount, int edgeCount) {
+        this.version = version;
+        this.base = base;
+        this.pages = pages;
+        this.addedNames = addedNames;
+        this.addedCount = addedCount;
+        this.addedIds = addedIds;
+        this.overlayRows = overlayRows;
+        this.nodeCount = nodeCount;
+        this.edgeCount = edgeCount;
+        if (pages.length == 0) {
+            this.compact = base;
+        }
+    }
+
+    // Helper: Version with no overlay on top of a CSR base
+    static GraphVersion ofBase(long version, CompactGraph base) {
+        return new GraphVersion(version, base, NO_PAGES, NO_NAMES, 0, new ConcurrentHashMap<>(), 0,
+                base.getNodeCount(), base.getEdgeCount());
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    // Helper: Number of ids in use, live or removed
+    int idCount() {
+        return base.getNodeCount() + addedCount;
+    }
+
+    // Helper: Id of a live node, or -1
+    int idOf(String node) {
+        int id = base.idOf(node);
+        if (id < 0) {
+            id = addedIdOf(base, addedNames, addedCount, addedIds, node);
+        }
+        return id >= 0 && row(id) != TOMBSTONE ? id : -1;
+    }
+
+    String nameOf(int id) {
+        int n = base.getNodeCount();
+        return id < n ? base.names[id] : addedName(addedNames, id - n);
+    }
+
+    static String addedName(String[][] chunks, int index) {
+        return chunks[index >>> PAGE_BITS][index & PAGE_MASK];
+    }
+
+    // Helper: Id of an added node among the first addedCount added ids, or -1
+    // Entries past addedCount, or left behind by a batch that threw before publishing, are ignored.
+    static int addedIdOf(CompactGraph base, String[][] chunks, int addedCount, Map<String, Integer> ids, String node) {
+        Integer id = ids.get(node);
+        if (id == null) {
+            return -1;
+        }
+        int index = id - base.getNodeCount();
+        return index < addedCount && addedName(chunks, index).equals(node) ? id : -1;
+    }
+
+    // Helper: Replaced row of a node, or null if its base row applies
+    int[] row(int id) {
+        int page = id >>> PAGE_BITS;
+        if (page >= pages.length || pages[page] == null) {
+            return null;
+        }
+        return pages[page][id & PAGE_MASK];
+    }
+
+    public boolean hasNode(String node) {
+        return idOf(node) >= 0;
+    }
+
+    // Neighbors in adjacency order; empty if the node does not exist
+    public List<String> getNeighbors(String node) {
+        int id = idOf(node);
+        if (id < 0) {
+            return List.of();
+        }
+        List<String> neighbors = new ArrayList<>();
+        forEachNeighbor(id, v -> neighbors.add(nameOf(v)));
+        return neighbors;
+    }
+
+    public boolean isConnected(String from, String to) {
+        int a = idOf(from);
+        int b = idOf(to);
+        if (a < 0 || b < 0) {
+            return false;
+        }
+        int[] row = row(a);
+        if (row == null) {
+            for (int e = base.offsets[a], end = base.offsets[a + 1]; e < end; e++) {
+                if (base.targets[e] == b) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int v : row) {
+            if (v == b) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Live node names, in id order
+    public List<String> getAllNodes() {
+        List<String> nodes = new ArrayList<>(nodeCount);
+        for (int id = 0, count = idCount(); id < count; id++) {
+            if (row(id) != TOMBSTONE) {
+                nodes.add(nameOf(id));
+            }
+        }
+        return nodes;
+    }
+
+    void forEachNeighbor(int id, IntConsumer action) {
+        int[] row = row(id);
+        if (row == null) {
+            for (int e = base.offsets[id], end = base.offsets[id + 1]; e < end; e++) {
+                action.accept(base.targets[e]);
+            }
+        } else {
+            for (int v : row) {
+                action.accept(v);
+            }
+        }
+    }
+
+    // Feature 4: Shortest path by hop count on this version, lock-free and safe from any thread
+    // Same traversal as BFSRouter.findPath, reading overlay rows where they exist and base rows elsewhere.
+    @Override
+    public List<String> findPath(String source, String destination) {
+        int src = idOf(source);
+        int dst = idOf(destination);
+        if (src < 0 || dst < 0) {
+            return null;
+        }
+        int[] offsets = base.offsets;
+        int[] targets = base.targets;
+        BFSScratch scratch = BFSScratch.forThread(idCount());
+        scratch.reset();
+        scratch.visit(src, src);
+        scratch.enqueue(src);
+        while (!scratch.isQueueEmpty()) {
+            int current = scratch.dequeue();
+            if (current == dst) {
+                return buildPath(scratch.parent, src, dst);
+            }
+            int[] row = row(current);
+            if (row == null) {
+                for (int e = offsets[current], end = offsets[current + 1]; e < end; e++) {
+                    int neighbor = targets[e];
+                    if (!scratch.isVisited(neighbor)) {
+                        scratch.visit(neighbor, current);
+                        scratch.enqueue(neighbor);
+                    }
+                }
+            } else {
+                for (int neighbor : row) {
+                    if (!scratch.isVisited(neighbor)) {
+                        scratch.visit(neighbor, current);
+                        scratch.enqueue(neighbor);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> buildPath(int[] parent, int src, int dst) {
+        int length = 1;
+        for (int at = dst; at != src; at = parent[at]) {
+            length++;
+        }
+        String[] path = new String[length];
+        int at = dst;
+        for (int i = length - 1; i > 0; i--) {
+            path[i] = nameOf(at);
+            at = parent[at];
+        }
+        path[0] = nameOf(src);
+        return Arrays.asList(path);
+    }
+
+    // Plain CSR of this version (removed nodes dropped, ids renumbered), for the CompactGraph-based engines
+    // Built once per version; the base itself when there is no overlay.
+    public CompactGraph toCompactGraph() {
+        CompactGraph result = compact;
+        if (result == null) {
+            result = materialize();
+            compact = result;
+        }
+        return result;
+    }
+
+    private CompactGraph materialize() {
+        int count = idCount();
+        int[] newId = new int[count];
+        String[] names = new String[nodeCount];
+        int next = 0;
+        for (int id = 0; id < count; id++) {
+            if (row(id) == TOMBSTONE) {
+                newId[id] = -1;
+            } else {
+                names[next] = nameOf(id);
+                newId[id] = next++;
+            }
+        }
+        int[] offsets = new int[nodeCount + 1];
+        int[] targets = new int[2 * edgeCount];
+        int pos = 0;
+        for (int id = 0; id < count; id++) {
+            int u = newId[id];
+            if (u < 0) {
+                continue;
+            }
+            int[] row = row(id);
+            if (row == null) {
+                for (int e = base.offsets[id], end = base.offsets[id + 1]; e < end; e++) {
+                    targets[pos++] = newId[base.targets[e]];
+                }
+            } else {
+                for (int v : row) {
+                    targets[pos++] = newId[v];
+                }
+            }
+            offsets[u + 1] = pos;
+        }
+        return new CompactGraph(names, offsets, targets);
+    }
+}
@@ -0,0 +1,76 @@
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Lock-free log-linear histogram for non-negative longs (HdrHistogram-style)
+// Values below 64 get their own bucket; above that every power of two is split into 32 sub-buckets,
+// so percentiles stay within about 3% of the true value with a fixed 1,920-slot array.
+public class Histogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int LINEAR_LIMIT = 2 * SUB_BUCKETS;             // 0..63 recorded exactly
+    private static final int BUCKETS = LINEAR_LIMIT + (64 - SUB_BUCKET_BITS - 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long value) {
+        counts.incrementAndGet(indexOf(Math.max(0, value)));
+    }
+
+    // Helper: Bucket of a value; exact below 64, 32 buckets per power of two above
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS; // >= 1
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;                      // 0..31
+        return LINEAR_LIMIT + (shift - 1) * SUB_BUCKETS + sub;
+    }
+
+    // Helper: Largest value that falls into a bucket
+    static long highestValueOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int shift = (index - LINEAR_LIMIT) / SUB_BUCKETS + 1;
+        long sub = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        return ((sub + 1) << shift) - 1;
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    // Value at the given percentile (0-100), reported as the upper bound of its bucket; 0 when empty
+    // Reads the live buckets twice without copying them. Concurrent records only raise counts, so the second
+    // pass reaches the rank computed in the first; a concurrent reset() falls back to the last bucket seen.
+    public long percentile(double percentile) {
+        long total = getCount();
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(total * Math.min(percentile, 100.0) / 100.0));
+        long seen = 0;
+        int last = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = counts.get(i);
+            if (count == 0) {
+                continue;
+            }
+            seen += count;
+            last = i;
+            if (seen >= rank) {
+                return highestValueOf(i);
+            }
+        }
+        return highestValueOf(last);
+    }
+
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+}
@@ -0,0 +1,218 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Offline preprocessing for HubLabelIndex: pruned landmark labeling (Akiba, Iwata, Yoshida 2013)
+// Nodes are ranked by degree, highest first. A BFS from each node in rank order labels every node it
+// reaches, but stops at nodes whose distance is already answered by the labels built so far, so later
+// searches touch only a small part of the graph.
+// Parallel rebuild: roots are processed in batches, each batch's pruned searches run concurrently on a
+// ForkJoin pool and only prune against labels of earlier batches. Pruning less never drops a needed entry,
+// so the index stays exact; labels just get slightly larger than a sequential build. Batch sizes start
+// at 1 and double up to the parallelism, because the first (highest-degree) hubs prune the most.
+public final class HubLabelBuilder implements AutoCloseable {
+    // Per-thread root-to-hub distances indexed by hub rank, MAX_VALUE where unset
+    private static final ThreadLocal<int[]> HUB_DIST = ThreadLocal.withInitial(() -> new int[0]);
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public HubLabelBuilder(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public HubLabelBuilder() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public HubLabelIndex build(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        int[] order = rankByDegree(graph);
+        Labels labels = new Labels(n);
+
+        int batch = 1;
+        for (int start = 0; start < n; ) {
+            int end = Math.min(n, start + batch);
+            List<Callable<Found>> tasks = new ArrayList<>(end - start);
+            for (int rank = start; rank < end; rank++) {
+                int r = rank;
+                tasks.add(() -> search(graph, labels, order[r]));
+            }
+            List<Found> results = new ArrayList<>(tasks.size());
+            try {
+                for (Future<Found> future : pool.invokeAll(tasks)) {
+                    results.add(future.get());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Label build interrupted.");
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Label build failed.", e.getCause());
+            }
+            // Commit in rank order so every label stays sorted by hub rank
+            for (int i = 0; i < results.size(); i++) {
+                Found found = results.get(i);
+                for (int k = 0; k < found.count; k++) {
+                    labels.add(found.nodes[k], start + i, found.dists[k], found.next[k]);
+                }
+            }
+            start = end;
+            batch = Math.min(batch * 2, parallelism);
+        }
+        return labels.toIndex(graph, order);
+    }
+
+    // Helper: Node ids sorted by degree, highest first, ties by id
+    private static int[] rankByDegree(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        long[] keys = new long[n];
+        for (int v = 0; v < n; v++) {
+            keys[v] = ((long) (Integer.MAX_VALUE - graph.degree(v)) << 32) | v;
+        }
+        Arrays.sort(keys);
+        int[] order = new int[n];
+        for (int rank = 0; rank < n; rank++) {
+            order[rank] = (int) keys[rank];
+        }
+        return order;
+    }
+
+    // Pruned BFS from root; reads committed labels only, so searches of one batch can run concurrently
+    private static Found search(CompactGraph g, Labels labels, int root) {
+        int n = g.getNodeCount();
+        BFSScratch scratch = BFSScratch.forThread(n);
+        int[] hubDist = HUB_DIST.get();
+        if (hubDist.length < n) {
+            hubDist = new int[n];
+            Arrays.fill(hubDist, Integer.MAX_VALUE);
+            HUB_DIST.set(hubDist);
+        }
+        // Distance from root to each hub of its own label, for O(|label|) pruning checks
+        int[] rootHubs = labels.hubs[root];
+        for (int i = 0; i < labels.size[root]; i++) {
+            hubDist[rootHubs[i]] = labels.dists[root][i];
+        }
+
+        Found found = new Found();
+        scratch.reset();
+        scratch.visit(root, -1);
+        scratch.dist[root] = 0;
+        scratch.enqueue(root);
+        while (!scratch.isQueueEmpty()) {
+            int u = scratch.dequeue();
+            int d = scratch.dist[u];
+            if (covered(labels, u, hubDist, d)) {
+                continue;
+            }
+            found.add(u, d, scratch.parent[u]);
+            for (int e = g.offsets[u], end = g.offsets[u + 1]; e < end; e++) {
+                int v = g.targets[e];
+                if (!scratch.isVisited(v)) {
+                    scratch.visit(v, u);
+                    scratch.dist[v] = d + 1;
+                    scratch.enqueue(v);
+                }
+            }
+        }
+
+        for (int i = 0; i < labels.size[root]; i++) {
+            hubDist[rootHubs[i]] = Integer.MAX_VALUE;
+        }
+        return found;
+    }
+
+    // Helper: True if the committed labels already give a root-to-u distance of at most d
+    private static boolean covered(Labels labels, int u, int[] hubDist, int d) {
+        int[] hubs = labels.hubs[u];
+        int[] dists = labels.dists[u];
+        for (int i = 0, size = labels.size[u]; i < size; i++) {
+            int viaHub = hubDist[hubs[i]];
+            if (viaHub != Integer.MAX_VALUE && viaHub + dists[i] <= d) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Labels under construction: one growable (hub, dist, next) list per node
+    private static final class Labels {
+        final int[][] hubs;
+        final int[][] dists;
+        final int[][] next;
+        final int[] size;
+        long total;
+
+        Labels(int n) {
+            hubs = new int[n][];
+            dists = new int[n][];
+            next = new int[n][];
+            size = new int[n];
+            for (int v = 0; v < n; v++) {
+                hubs[v] = new int[4];
+                dists[v] = new int[4];
+                next[v] = new int[4];
+            }
+        }
+
+        void add(int node, int hub, int dist, int nextNode) {
+            int s = size[node];
+            if (s == hubs[node].length) {
+                hubs[node] = Arrays.copyOf(hubs[node], s * 2);
+                dists[node] = Arrays.copyOf(dists[node], s * 2);
+                next[node] = Arrays.copyOf(next[node], s * 2);
+            }
+            hubs[node][s] = hub;
+            dists[node][s] = dist;
+            next[node][s] = nextNode;
+            size[node] = s + 1;
+            total++;
+        }
+
+        HubLabelIndex toIndex(CompactGraph graph, int[] order) {
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Label index exceeds " + Integer.MAX_VALUE + " entries.");
+            }
+            int n = size.length;
+            int[] offsets = new int[n + 1];
+            int[] flatHubs = new int[(int) total];
+            int[] flatDists = new int[(int) total];
+            int[] flatNext = new int[(int) total];
+            for (int v = 0; v < n; v++) {
+                int at = offsets[v];
+                System.arraycopy(hubs[v], 0, flatHubs, at, size[v]);
+                System.arraycopy(dists[v], 0, flatDists, at, size[v]);
+                System.arraycopy(next[v], 0, flatNext, at, size[v]);
+                offsets[v + 1] = at + size[v];
+            }
+            return new HubLabelIndex(graph, order, offsets, flatHubs, flatDists, flatNext);
+        }
+    }
+
+    // Label entries produced by one root's pruned search
+    private static final class Found {
+        int[] nodes = new int[16];
+        int[] dists = new int[16];
+        int[] next = new int[16];
+        int count;
+
+        void add(int node, int dist, int nextNode) {
+            if (count == nodes.length) {
+                nodes = Arrays.copyOf(nodes, count * 2);
+                dists = Arrays.copyOf(dists, count * 2);
+                next = Arrays.copyOf(next, count * 2);
+            }
+            nodes[count] = node;
+            dists[count] = dist;
+            next[count] = nextNode;
+            count++;
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
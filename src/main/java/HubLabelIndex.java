@@ -0,0 +1,261 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Hop-distance oracle built by pruned landmark labeling (2-hop cover)
+// Every node keeps a label: a list of (hub, distance, next node toward the hub) entries, sorted by hub rank.
+// Any two nodes share a hub on some shortest path between them, so distance(s, t) is the minimum of
+// d(s, h) + d(h, t) over the hubs h common to both labels: one merge of two short sorted arrays.
+// Paths are rebuilt by following the "next node toward the hub" entries from both ends to the meeting hub.
+// Built by HubLabelBuilder; labels are for unit weights, edge weights are ignored like in BFSRouter.
+//
+// File layout (little-endian):
+//   int magic, int formatVersion, int nodeCount, int targetCount, long labelCount, long graphChecksum
+//   int[nodeCount]     order         node id of each hub rank
+//   int[nodeCount + 1] offsets       start of each node's label
+//   int[labelCount]    hubs, dists, next
+// graphChecksum covers the rows and names of the graph, so labels are never loaded onto a graph with
+// the same counts but other edges, or the same graph snapshotted with another id order.
+public final class HubLabelIndex implements Router {
+    static final int MAGIC = 0x484C4258; // "HLBX"
+    static final int FORMAT_VERSION = 2;
+    private static final int HEADER_BYTES = 32;
+    private static final int WRITE_BUFFER_BYTES = 1 << 20;
+
+    private final CompactGraph graph;
+    private final int[] order;   // order[rank] = node id, highest degree first
+    private final int[] offsets; // Label of node v is [offsets[v], offsets[v + 1])
+    private final int[] hubs;    // Hub rank, ascending within a label
+    private final int[] dists;   // Hop distance to the hub
+    private final int[] next;    // Neighbor one hop closer to the hub, -1 for the hub itself
+
+    HubLabelIndex(CompactGraph graph, int[] order, int[] offsets, int[] hubs, int[] dists, int[] next) {
+        this.graph = graph;
+        this.order = order;
+        this.offsets = offsets;
+        this.hubs = hubs;
+        this.dists = dists;
+        this.next = next;
+    }
+
+    public CompactGraph getGraph() {
+        return graph;
+    }
+
+    // Hop distance between two nodes, or -1 if either is missing or they are not connected
+    public int distance(String source, String destination) {
+        int s = graph.idOf(source);
+        int t = graph.idOf(destination);
+        if (s < 0 || t < 0) {
+            return -1;
+        }
+        long meet = meet(s, t);
+        return meet < 0 ? -1 : dists[(int) (meet >>> 32)] + dists[(int) meet];
+    }
+
+    // Shortest path by hop count, or null if either node is missing or there is no path
+    @Override
+    public List<String> findPath(String source, String destination) {
+        int s = graph.idOf(source);
+        int t = graph.idOf(destination);
+        if (s < 0 || t < 0) {
+            return null;
+        }
+        long meet = meet(s, t);
+        if (meet < 0) {
+            return null;
+        }
+        int sPos = (int) (meet >>> 32);
+        int tPos = (int) meet;
+        int hub = hubs[sPos];
+        List<String> path = new ArrayList<>(dists[sPos] + dists[tPos] + 1);
+
+        // Source up to and including the hub
+        for (int v = s, pos = sPos; ; ) {
+            path.add(graph.names[v]);
+            if (next[pos] < 0) {
+                break;
+            }
+            v = next[pos];
+            pos = find(v, hub);
+        }
+        // Destination up to just below the hub, then reversed
+        int mark = path.size();
+        for (int v = t, pos = tPos; next[pos] >= 0; ) {
+            path.add(graph.names[v]);
+            v = next[pos];
+            pos = find(v, hub);
+        }
+        Collections.reverse(path.subList(mark, path.size()));
+        return path;
+    }
+
+    // Helper: Label positions of the closest common hub in s's and t's labels, packed as (sPos << 32 | tPos); -1 if none
+    private long meet(int s, int t) {
+        int i = offsets[s];
+        int iEnd = offsets[s + 1];
+        int j = offsets[t];
+        int jEnd = offsets[t + 1];
+        int best = Integer.MAX_VALUE;
+        long meet = -1;
+        while (i < iEnd && j < jEnd) {
+            int a = hubs[i];
+            int b = hubs[j];
+            if (a == b) {
+                int d = dists[i] + dists[j];
+                if (d < best) {
+                    best = d;
+                    meet = ((long) i << 32) | j;
+                }
+                i++;
+                j++;
+            } else if (a < b) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return meet;
+    }
+
+    // Helper: Position of hub rank in v's label. Always present: a node is only expanded in a hub's
+    // pruned BFS after it received that hub's label, so every "next" node carries the hub too.
+    private int find(int v, int hub) {
+        int pos = Arrays.binarySearch(hubs, offsets[v], offsets[v + 1], hub);
+        if (pos < 0) {
+            throw new IllegalStateException("Corrupt label index at node " + graph.names[v]);
+        }
+        return pos;
+    }
+
+    public int getLabelCount() {
+        return hubs.length;
+    }
+
+    public double getAverageLabelSize() {
+        return order.length == 0 ? 0 : (double) hubs.length / order.length;
+    }
+
+    // Bytes held by the label arrays (excluding the graph)
+    public long getIndexBytes() {
+        return 4L * (order.length + offsets.length + 3L * hubs.length);
+    }
+
+    // Save the labels; the graph itself is saved separately with GraphFile
+    public void write(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(WRITE_BUFFER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+            buffer.putInt(MAGIC).putInt(FORMAT_VERSION).putInt(order.length).putInt(graph.targets.length)
+                    .putLong(hubs.length).putLong(checksum(graph));
+            GraphFile.writeInts(channel, buffer, order);
+            GraphFile.writeInts(channel, buffer, offsets);
+            GraphFile.writeInts(channel, buffer, hubs);
+            GraphFile.writeInts(channel, buffer, dists);
+            GraphFile.writeInts(channel, buffer, next);
+            GraphFile.flush(channel, buffer);
+        }
+    }
+
+    // Load labels written for this graph; fails if the file was built for another graph or another id order
+    public static HubLabelIndex load(Path file, CompactGraph graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a label index file: " + file);
+            }
+            ByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES)
+                    .order(ByteOrder.LITTLE_ENDIAN);
+            if (header.getInt() != MAGIC) {
+                throw new IOException("Not a label index file: " + file);
+            }
+            int formatVersion = header.getInt();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported label index version " + formatVersion + ": " + file);
+            }
+            int n = header.getInt();
+            int targetCount = header.getInt();
+            long labelCount = header.getLong();
+            long graphChecksum = header.getLong();
+            if (n != graph.getNodeCount() || targetCount != graph.targets.length || graphChecksum != checksum(graph)) {
+                throw new IOException("Label index was built for a different graph: " + file);
+            }
+            long expected = HEADER_BYTES + 4L * (2L * n + 1) + 12L * labelCount;
+            if (labelCount < 0 || labelCount > Integer.MAX_VALUE || channel.size() != expected) {
+                throw new IOException("Corrupt label index file: " + file);
+            }
+
+            int count = (int) labelCount;
+            long pos = HEADER_BYTES;
+            int[] order = GraphFile.readInts(channel, pos, n);
+            pos += 4L * n;
+            int[] offsets = GraphFile.readInts(channel, pos, n + 1);
+            pos += 4L * (n + 1);
+            int[] hubs = GraphFile.readInts(channel, pos, count);
+            pos += 4L * count;
+            int[] dists = GraphFile.readInts(channel, pos, count);
+            pos += 4L * count;
+            int[] next = GraphFile.readInts(channel, pos, count);
+            if (!isValid(n, order, offsets, hubs, dists, next)) {
+                throw new IOException("Corrupt label index file: " + file);
+            }
+            return new HubLabelIndex(graph, order, offsets, hubs, dists, next);
+        }
+    }
+
+    // Helper: Every index the queries follow stays in range, and hubs ascend within a label (binary search)
+    private static boolean isValid(int n, int[] order, int[] offsets, int[] hubs, int[] dists, int[] next) {
+        for (int id : order) {
+            if (id < 0 || id >= n) {
+                return false;
+            }
+        }
+        if (offsets[0] != 0 || offsets[n] != hubs.length) {
+            return false;
+        }
+        for (int v = 0; v < n; v++) {
+            if (offsets[v + 1] < offsets[v]) {
+                return false;
+            }
+            for (int pos = offsets[v]; pos < offsets[v + 1]; pos++) {
+                if (hubs[pos] < 0 || hubs[pos] >= n || dists[pos] < 0 || next[pos] < -1 || next[pos] >= n
+                        || (pos > offsets[v] && hubs[pos] <= hubs[pos - 1])) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    // Helper: 64-bit hash of the graph's rows and names, in id order
+    // Each row is hashed as a set (a sum of mixed targets): labels do not depend on the order within a row, so
+    // the same topology rebuilt with rows in another order still matches.
+    static long checksum(CompactGraph graph) {
+        long hash = 0x9E3779B97F4A7C15L;
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            long row = 0;
+            for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                row += mix(graph.targets[e]);
+            }
+            hash = (hash ^ graph.degree(v)) * 0x100000001B3L;
+            hash = (hash ^ row) * 0x100000001B3L;
+        }
+        for (String name : graph.names) {
+            for (int i = 0; i < name.length(); i++) {
+                hash = (hash ^ name.charAt(i)) * 0x100000001B3L;
+            }
+            hash = (hash ^ 0xFFFF_0000L) * 0x100000001B3L; // Name separator, outside the char range
+        }
+        return hash;
+    }
+
+    // Helper: murmur3 finalizer, spreads small ids over all 64 bits before they are summed
+    private static long mix(long x) {
+        x = (x ^ (x >>> 33)) * 0xFF51AFD7ED558CCDL;
+        x = (x ^ (x >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return x ^ (x >>> 33);
+    }
+}
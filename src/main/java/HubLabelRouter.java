@@ -0,0 +1,50 @@
+import java.util.List;
+
+// Router answering queries from a HubLabelIndex of a Graph
+// The index is rebuilt (in parallel, by the given builder) on the first query after Graph.getVersion() moved,
+// so a burst of topology changes costs one rebuild, not one per change.
+public class HubLabelRouter implements Router {
+    private final Graph graph;
+    private final HubLabelBuilder builder;
+
+    private HubLabelIndex index;
+    private long version = -1;
+    private long rebuilds;
+
+    public HubLabelRouter(Graph graph, HubLabelBuilder builder) {
+        this.graph = graph;
+        this.builder = builder;
+    }
+
+    // Start from a saved index (see HubLabelIndex.load); it is used until the graph changes
+    public HubLabelRouter(Graph graph, HubLabelBuilder builder, HubLabelIndex index) {
+        this(graph, builder);
+        this.index = index;
+        this.version = graph.getVersion();
+    }
+
+    @Override
+    public List<String> findPath(String source, String destination) {
+        return current().findPath(source, destination);
+    }
+
+    // Hop distance, or -1 if either node is missing or there is no path
+    public int distance(String source, String destination) {
+        return current().distance(source, destination);
+    }
+
+    // Index matching the current graph version, rebuilt if the graph changed
+    public synchronized HubLabelIndex current() {
+        long current = graph.getVersion();
+        if (index == null || version != current) {
+            index = builder.build(graph.snapshot());
+            version = current;
+            rebuilds++;
+        }
+        return index;
+    }
+
+    public synchronized long getRebuildCount() {
+        return rebuilds;
+    }
+}
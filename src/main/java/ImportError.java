@@ -0,0 +1,7 @@
+// A malformed line found while importing an edge list
+public record ImportError(long lineNumber, String line, String reason) {
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + reason + " (" + line + ")";
+    }
+}
@@ -0,0 +1,11 @@
+import java.util.List;
+
+// Outcome of an edge-list import: the graph, the malformed lines, and throughput
+// errors holds the first EdgeListImporter.MAX_ERRORS malformed lines in file order; errorCount counts all of them.
+public record ImportResult(CompactGraph graph, List<ImportError> errors, long errorCount, long edgeLines,
+                           long elapsedNanos) {
+    // Accepted edge lines per second, duplicates included
+    public double edgesPerSecond() {
+        return elapsedNanos == 0 ? 0 : edgeLines * 1e9 / elapsedNanos;
+    }
+}
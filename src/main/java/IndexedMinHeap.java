@@ -0,0 +1,99 @@
+import java.util.Arrays;
+
+// Binary min-heap over int ids 0..capacity-1 with double keys and O(log n) decrease-key
+// pos[id] is the id's slot in heap[], or -1 when the id is not queued. No boxing, no per-operation
+// allocation; clear() only touches the ids still queued.
+final class IndexedMinHeap {
+    private int[] heap = new int[0];
+    private int[] pos = new int[0];
+    private double[] keys = new double[0];
+    private int size;
+
+    void ensureCapacity(int capacity) {
+        if (pos.length < capacity) {
+            heap = new int[capacity];
+            pos = new int[capacity];
+            keys = new double[capacity];
+            Arrays.fill(pos, -1);
+            size = 0;
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    boolean contains(int id) {
+        return pos[id] >= 0;
+    }
+
+    // Insert id, or lower its key if it is already queued with a larger one
+    void insertOrDecrease(int id, double key) {
+        int i = pos[id];
+        if (i < 0) {
+            i = size++;
+            heap[i] = id;
+            pos[id] = i;
+        } else if (key >= keys[id]) {
+            return;
+        }
+        keys[id] = key;
+        siftUp(i);
+    }
+
+    int poll() {
+        int top = heap[0];
+        pos[top] = -1;
+        if (--size > 0) {
+            heap[0] = heap[size];
+            pos[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            pos[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            int parentId = heap[parent];
+            if (keys[parentId] <= key) {
+                break;
+            }
+            heap[i] = parentId;
+            pos[parentId] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+
+    private void siftDown(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && keys[heap[right]] < keys[heap[child]]) {
+                child = right;
+            }
+            if (keys[heap[child]] >= key) {
+                break;
+            }
+            heap[i] = heap[child];
+            pos[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        pos[id] = i;
+    }
+}
@@ -0,0 +1,282 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.*;
+
+// Read-only graph routed directly on a memory-mapped GraphFile
+// Opening costs a few mmap calls whatever the file size; the OS pages rows and names in as queries touch
+// them and can evict them again under memory pressure, so the topology does not have to fit in the heap.
+// Names are decoded only for returned paths, and name lookups binary-search the byName section.
+// A corrupt row, name offset or byName id is reported as an UncheckedIOException when it is read, never as a
+// wrong path. A byName section out of name order can only be caught by a full pass: call verify() on files
+// that did not come from GraphFile.write, or idOf may miss nodes.
+public final class MappedGraph implements Router {
+    private final Path file;
+    private final int nodeCount;
+    private final GraphFile.Ints offsets;
+    private final GraphFile.Ints targets;
+    private final GraphFile.Ints nameOffsets;
+    private final GraphFile.Ints byName;
+    private final GraphFile.Doubles weights; // null for unweighted files; only copied by toCompactGraph
+    private final ByteBuffer names;
+
+    MappedGraph(Path file, int nodeCount, GraphFile.Ints offsets, GraphFile.Ints targets,
+                GraphFile.Ints nameOffsets, GraphFile.Ints byName, GraphFile.Doubles weights, ByteBuffer names) {
+        this.file = file;
+        this.nodeCount = nodeCount;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.nameOffsets = nameOffsets;
+        this.byName = byName;
+        this.weights = weights;
+        this.names = names;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return targets.length / 2;
+    }
+
+    // Helper: True if the file carries edge weights (routing here is by hop count; see toCompactGraph)
+    public boolean isWeighted() {
+        return weights != null;
+    }
+
+    // Helper: Id of a node, or -1 if the node does not exist
+    public int idOf(String node) {
+        byte[] key = node.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = nodeCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int id = byName.get(mid);
+            if (id < 0 || id >= nodeCount) {
+                throw corrupt();
+            }
+            int order = compareName(id, key);
+            if (order < 0) {
+                low = mid + 1;
+            } else if (order > 0) {
+                high = mid - 1;
+            } else {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    public boolean hasNode(String node) {
+        return idOf(node) >= 0;
+    }
+
+    // Helper: Name of the node with the given id, decoded from the string table
+    public String nameOf(int id) {
+        int start = nameStart(id);
+        int end = nameStart(id + 1);
+        if (end < start) {
+            throw corrupt();
+        }
+        byte[] bytes = new byte[end - start];
+        names.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Helper: Number of neighbors of a node id
+    public int degree(int id) {
+        return rowEnd(id) - rowStart(id);
+    }
+
+    // Helper: Row of node id is [rowStart(id), rowEnd(id)) in the targets section
+    int rowStart(int id) {
+        int start = offsets.get(id);
+        if (start < 0 || start > targets.length) {
+            throw corrupt();
+        }
+        return start;
+    }
+
+    int rowEnd(int id) {
+        int end = offsets.get(id + 1);
+        if (end < offsets.get(id) || end > targets.length) {
+            throw corrupt();
+        }
+        return end;
+    }
+
+    // Helper: Neighbor id at position e of the targets section
+    int target(int e) {
+        int v = targets.get(e);
+        if (v < 0 || v >= nodeCount) {
+            throw corrupt();
+        }
+        return v;
+    }
+
+    // Feature 4: Shortest path by hop count, same traversal and tie-breaking as BFSRouter.findPath
+    @Override
+    public List<String> findPath(String source, String destination) {
+        int src = idOf(source);
+        int dst = idOf(destination);
+        if (src < 0 || dst < 0) {
+            return null;
+        }
+        BFSScratch scratch = BFSScratch.forThread(nodeCount);
+        scratch.reset();
+        scratch.visit(src, src);
+        scratch.enqueue(src);
+        while (!scratch.isQueueEmpty()) {
+            int current = scratch.dequeue();
+            if (current == dst) {
+                return buildPath(scratch.parent, src, dst);
+            }
+            for (int e = rowStart(current), end = rowEnd(current); e < end; e++) {
+                int neighbor = target(e);
+                if (!scratch.isVisited(neighbor)) {
+                    scratch.visit(neighbor, current);
+                    scratch.enqueue(neighbor);
+                }
+            }
+        }
+        return null;
+    }
+
+    private List<String> buildPath(int[] parent, int src, int dst) {
+        int length = 1;
+        for (int at = dst; at != src; at = parent[at]) {
+            length++;
+        }
+        String[] path = new String[length];
+        int at = dst;
+        for (int i = length - 1; i > 0; i--) {
+            path[i] = nameOf(at);
+            at = parent[at];
+        }
+        path[0] = nameOf(src);
+        return Arrays.asList(path);
+    }
+
+    // Read the whole file once and check every row, target, name offset and the byName order; pages everything in
+    public void verify() throws IOException {
+        try {
+            for (int v = 0; v < nodeCount; v++) {
+                for (int e = rowStart(v), end = rowEnd(v); e < end; e++) {
+                    target(e);
+                }
+                if (nameStart(v + 1) < nameStart(v)) {
+                    throw corrupt();
+                }
+            }
+            checkByName();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    // Helper: byName must list every id exactly once, in strictly increasing name order, or idOf would
+    // quietly miss nodes; name offsets are checked before this runs
+    private void checkByName() {
+        boolean[] seen = new boolean[nodeCount];
+        int previous = -1;
+        for (int i = 0; i < nodeCount; i++) {
+            int id = byName.get(i);
+            if (id < 0 || id >= nodeCount || seen[id]) {
+                throw corrupt();
+            }
+            seen[id] = true;
+            if (previous >= 0 && compareNames(previous, id) >= 0) {
+                throw corrupt();
+            }
+            previous = id;
+        }
+    }
+
+    // Copy into a heap CompactGraph for the engines that work on arrays (DijkstraRouter for weighted files);
+    // checks the file on the way
+    public CompactGraph toCompactGraph() throws IOException {
+        int[] offsetArray = offsets.toArray();
+        int[] targetArray = targets.toArray();
+        int[] nameArray = nameOffsets.toArray();
+        for (int v = 0; v < nodeCount; v++) {
+            if (offsetArray[v + 1] < offsetArray[v] || nameArray[v + 1] < nameArray[v]) {
+                throw corrupt().getCause();
+            }
+        }
+        for (int v : targetArray) {
+            if (v < 0 || v >= nodeCount) {
+                throw corrupt().getCause();
+            }
+        }
+        double[] weightArray = weights == null ? null : weights.toArray();
+        if (weightArray != null) {
+            for (double weight : weightArray) {
+                if (!(weight > 0) || Double.isInfinite(weight)) {
+                    throw corrupt().getCause();
+                }
+            }
+        }
+        try {
+            checkByName();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        String[] nameTable = new String[nodeCount];
+        byte[] bytes = new byte[64];
+        for (int i = 0; i < nodeCount; i++) {
+            int length = nameArray[i + 1] - nameArray[i];
+            if (length > bytes.length) {
+                bytes = new byte[Math.max(length, bytes.length * 2)];
+            }
+            names.get(nameArray[i], bytes, 0, length);
+            nameTable[i] = new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+        return new CompactGraph(nameTable, offsetArray, targetArray, null, weightArray, null, null);
+    }
+
+    private int nameStart(int id) {
+        int start = nameOffsets.get(id);
+        if (start < 0 || start > names.limit()) {
+            throw corrupt();
+        }
+        return start;
+    }
+
+    // Helper: Compare the stored name of id with key, byte by byte as unsigned values
+    private int compareName(int id, byte[] key) {
+        int start = nameStart(id);
+        int length = nameStart(id + 1) - start;
+        if (length < 0) {
+            throw corrupt();
+        }
+        for (int i = 0, common = Math.min(length, key.length); i < common; i++) {
+            int order = Byte.compareUnsigned(names.get(start + i), key[i]);
+            if (order != 0) {
+                return order;
+            }
+        }
+        return length - key.length;
+    }
+
+    // Helper: Compare the stored names of two ids, byte by byte as unsigned values
+    private int compareNames(int a, int b) {
+        int startA = nameStart(a);
+        int lengthA = nameStart(a + 1) - startA;
+        int startB = nameStart(b);
+        int lengthB = nameStart(b + 1) - startB;
+        for (int i = 0, common = Math.min(lengthA, lengthB); i < common; i++) {
+            int order = Byte.compareUnsigned(names.get(startA + i), names.get(startB + i));
+            if (order != 0) {
+                return order;
+            }
+        }
+        return lengthA - lengthB;
+    }
+
+    private UncheckedIOException corrupt() {
+        return new UncheckedIOException(new IOException("Corrupt graph file: " + file));
+    }
+}
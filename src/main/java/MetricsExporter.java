@@ -0,0 +1,5 @@
+// Destination for periodic RoutingMetrics snapshots (log file, time-series database, ...)
+@FunctionalInterface
+public interface MetricsExporter {
+    void export(MetricsSnapshot snapshot);
+}
@@ -0,0 +1,16 @@
+// Point-in-time copy of RoutingMetrics; latencies in nanoseconds
+// graphMutations is cumulative: the mutation rate is its delta between two snapshots over the time delta.
+public record MetricsSnapshot(
+        long timestampMillis,
+        long queries,
+        long latencyP50Nanos,
+        long latencyP99Nanos,
+        long latencyP999Nanos,
+        long nodesVisitedP50,
+        long nodesVisitedP99,
+        long edgesScannedP50,
+        long edgesScannedP99,
+        long frontierSizeP50,
+        long frontierSizeP99,
+        long graphMutations) {
+}
@@ -0,0 +1,203 @@
+import java.util.*;
+import java.util.concurrent.*;
+
+// Multi-source BFS (MS-BFS, Then et al. 2014): up to 64 BFS traversals share one pass over the adjacency
+// Every node carries three 64-bit words, one bit per source of the batch:
+//   seen  - sources that already reached the node
+//   visit - sources whose frontier contains the node at the current level
+//   next  - sources whose frontier contains the node at the next level
+// Expanding node v sends all of visit[v] to each neighbor u at once (next[u] |= visit[v] & ~seen[u]), so
+// a neighbor list is scanned once per batch instead of once per source. Batches run in parallel on a
+// ForkJoin pool. Distances are streamed to a sink; nothing O(sources x nodes) is kept.
+public final class MultiSourceBFS implements AutoCloseable {
+    private static final int WIDTH = Long.SIZE; // Sources per batch
+    private static final ThreadLocal<Scratch> PER_THREAD = ThreadLocal.withInitial(Scratch::new);
+
+    private final ForkJoinPool pool;
+
+    // Receives one (source, node, distance) triple per reachable pair
+    // Called concurrently from pool threads, so it must be thread-safe. The triples of one source all come
+    // from the same thread, in non-decreasing distance order, starting with (source, source, 0).
+    @FunctionalInterface
+    public interface DistanceSink {
+        void accept(int source, int node, int distance);
+    }
+
+    // Per-source summary: greatest hop distance to a reachable node, number of reachable nodes (including
+    // the source itself) and sum of distances to them (farness, the inverse of closeness)
+    public record SourceStats(int eccentricity, int reached, long distanceSum) {
+    }
+
+    public MultiSourceBFS(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public MultiSourceBFS() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    // Stream the hop distance from every source id to every node id it reaches
+    public void forEachDistance(CompactGraph graph, int[] sources, DistanceSink sink) {
+        run(graph, sources, (index, node, distance) -> sink.accept(sources[index], node, distance));
+    }
+
+    // Eccentricity, reach and farness of each source id, in the order of sources
+    public SourceStats[] stats(CompactGraph graph, int[] sources) {
+        int[] eccentricity = new int[sources.length];
+        int[] reached = new int[sources.length];
+        long[] distanceSum = new long[sources.length];
+        // A batch only writes the slots of its own sources, so the arrays need no synchronization
+        run(graph, sources, (index, node, distance) -> {
+            eccentricity[index] = distance;
+            reached[index]++;
+            distanceSum[index] += distance;
+        });
+        SourceStats[] stats = new SourceStats[sources.length];
+        for (int i = 0; i < sources.length; i++) {
+            stats[i] = new SourceStats(eccentricity[i], reached[i], distanceSum[i]);
+        }
+        return stats;
+    }
+
+    // Largest hop distance between two connected nodes (the maximum over all components); 0 for an empty graph
+    public int diameter(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        int[] all = new int[n];
+        for (int v = 0; v < n; v++) {
+            all[v] = v;
+        }
+        int diameter = 0;
+        for (SourceStats stats : stats(graph, all)) {
+            diameter = Math.max(diameter, stats.eccentricity());
+        }
+        return diameter;
+    }
+
+    // Run all batches; sink receives the index into sources rather than the source id
+    private void run(CompactGraph graph, int[] sources, DistanceSink sink) {
+        int n = graph.getNodeCount();
+        for (int source : sources) {
+            if (source < 0 || source >= n) {
+                throw new IllegalArgumentException("Unknown node id " + source);
+            }
+        }
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int base = 0; base < sources.length; base += WIDTH) {
+            int b = base;
+            int count = Math.min(WIDTH, sources.length - base);
+            tasks.add(() -> {
+                Scratch scratch = PER_THREAD.get();
+                scratch.ensureCapacity(n);
+                try {
+                    traverse(graph, sources, b, count, scratch, sink);
+                } finally {
+                    scratch.clear(n);
+                }
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Multi-source BFS interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Multi-source BFS failed.", e.getCause());
+        }
+    }
+
+    // One batch of up to 64 sources starting at sources[base]; bit i stands for sources[base + i]
+    private static void traverse(CompactGraph g, int[] sources, int base, int count, Scratch s, DistanceSink sink) {
+        int[] offsets = g.offsets;
+        int[] targets = g.targets;
+        long[] seen = s.seen;
+        long[] visit = s.visit;
+        long[] next = s.next;
+
+        int frontierSize = 0;
+        for (int i = 0; i < count; i++) {
+            int v = sources[base + i];
+            if (visit[v] == 0) {
+                s.frontier[frontierSize++] = v;
+            }
+            seen[v] |= 1L << i;
+            visit[v] |= 1L << i;
+            sink.accept(base + i, v, 0);
+        }
+
+        for (int level = 1; frontierSize > 0; level++) {
+            int nextSize = 0;
+            for (int f = 0; f < frontierSize; f++) {
+                int v = s.frontier[f];
+                long bits = visit[v];
+                for (int e = offsets[v], end = offsets[v + 1]; e < end; e++) {
+                    int u = targets[e];
+                    long fresh = bits & ~seen[u];
+                    if (fresh != 0) {
+                        if (next[u] == 0) {
+                            s.nextFrontier[nextSize++] = u;
+                        }
+                        next[u] |= fresh;
+                        seen[u] |= fresh;
+                    }
+                }
+            }
+            for (int f = 0; f < frontierSize; f++) {
+                visit[s.frontier[f]] = 0;
+            }
+            for (int f = 0; f < nextSize; f++) {
+                int u = s.nextFrontier[f];
+                long bits = next[u];
+                visit[u] = bits;
+                next[u] = 0;
+                while (bits != 0) {
+                    sink.accept(base + Long.numberOfTrailingZeros(bits), u, level);
+                    bits &= bits - 1;
+                }
+            }
+            int[] swap = s.frontier;
+            s.frontier = s.nextFrontier;
+            s.nextFrontier = swap;
+            frontierSize = nextSize;
+        }
+    }
+
+    // Per-thread bit words and frontier lists; buffers only grow
+    private static final class Scratch {
+        long[] seen = new long[0];
+        long[] visit = new long[0];
+        long[] next = new long[0];
+        int[] frontier = new int[0];
+        int[] nextFrontier = new int[0];
+
+        void ensureCapacity(int n) {
+            if (seen.length < n) {
+                seen = new long[n];
+                visit = new long[n];
+                next = new long[n];
+                frontier = new int[n];
+                nextFrontier = new int[n];
+            }
+        }
+
+        // Also after a sink threw halfway through a batch
+        void clear(int n) {
+            Arrays.fill(seen, 0, n, 0);
+            Arrays.fill(visit, 0, n, 0);
+            Arrays.fill(next, 0, n, 0);
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
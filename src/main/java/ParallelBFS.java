@@ -0,0 +1,166 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Parallel level-synchronous BFS on a ForkJoin pool
+// Each level's frontier is cut into slices that ForkJoin workers expand independently. A node is
+// claimed by CAS-ing its parent slot from -1, so exactly one frontier node becomes its parent, and
+// every slice appends its claims to its own next-frontier buffer. Levels are joined before the next
+// one starts, so distances equal the sequential BFS distances and the parents form a valid
+// shortest-path tree (the chosen parent among equally short ones may differ from BFSRouter).
+public final class ParallelBFS implements AutoCloseable {
+    private static final int GRAIN = 1024; // Frontier nodes per slice below which splitting does not pay
+
+    private final ForkJoinPool pool;
+    private final int parallelism;
+
+    public ParallelBFS(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1.");
+        }
+        this.parallelism = parallelism;
+        this.pool = new ForkJoinPool(parallelism);
+    }
+
+    public ParallelBFS() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    // Result of a traversal: parents[src] == src, parents[v] == -1 and distances[v] == -1 if unreachable
+    public record Tree(int[] parents, int[] distances) {
+    }
+
+    // Hop distance from source to every node id, or null if source does not exist
+    public int[] distancesFrom(CompactGraph graph, String source) {
+        int src = graph.idOf(source);
+        return src < 0 ? null : traverse(graph, src).distances();
+    }
+
+    // Shortest-path tree rooted at source as a parent array, or null if source does not exist
+    public int[] parentsFrom(CompactGraph graph, String source) {
+        int src = graph.idOf(source);
+        return src < 0 ? null : traverse(graph, src).parents();
+    }
+
+    Tree traverse(CompactGraph graph, int src) {
+        int n = graph.getNodeCount();
+        AtomicIntegerArray parents = new AtomicIntegerArray(n);
+        for (int i = 0; i < n; i++) {
+            parents.set(i, -1);
+        }
+        int[] distances = new int[n];
+        Arrays.fill(distances, -1);
+        parents.set(src, src);
+        distances[src] = 0;
+
+        int[] frontier = {src};
+        int frontierSize = 1;
+        for (int level = 1; frontierSize > 0; level++) {
+            int slices = Math.min((frontierSize + GRAIN - 1) / GRAIN, parallelism * 4);
+            int[][] chunks = new int[slices][];
+            int[] chunkSizes = new int[slices];
+            LevelTask task = new LevelTask(graph, parents, distances, level, frontier, frontierSize,
+                    slices, chunks, chunkSizes, 0, slices);
+            if (slices == 1) {
+                task.compute();
+            } else {
+                pool.invoke(task);
+            }
+
+            int nextSize = 0;
+            for (int size : chunkSizes) {
+                nextSize += size;
+            }
+            int[] next = new int[nextSize];
+            int pos = 0;
+            for (int i = 0; i < slices; i++) {
+                System.arraycopy(chunks[i], 0, next, pos, chunkSizes[i]);
+                pos += chunkSizes[i];
+            }
+            frontier = next;
+            frontierSize = nextSize;
+        }
+
+        int[] parentArray = new int[n];
+        for (int i = 0; i < n; i++) {
+            parentArray[i] = parents.get(i);
+        }
+        return new Tree(parentArray, distances);
+    }
+
+    // Expands slices [from, to) of one level, splitting in half until a single slice is left
+    private static final class LevelTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final CompactGraph graph;
+        private final AtomicIntegerArray parents;
+        private final int[] distances;
+        private final int level;
+        private final int[] frontier;
+        private final int frontierSize;
+        private final int slices;
+        private final int[][] chunks;
+        private final int[] chunkSizes;
+        private final int from;
+        private final int to;
+
+        LevelTask(CompactGraph graph, AtomicIntegerArray parents, int[] distances, int level, int[] frontier,
+                  int frontierSize, int slices, int[][] chunks, int[] chunkSizes, int from, int to) {
+            this.graph = graph;
+            this.parents = parents;
+            this.distances = distances;
+            this.level = level;
+            this.frontier = frontier;
+            this.frontierSize = frontierSize;
+            this.slices = slices;
+            this.chunks = chunks;
+            this.chunkSizes = chunkSizes;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > 1) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new LevelTask(graph, parents, distances, level, frontier, frontierSize,
+                                slices, chunks, chunkSizes, from, mid),
+                        new LevelTask(graph, parents, distances, level, frontier, frontierSize,
+                                slices, chunks, chunkSizes, mid, to));
+                return;
+            }
+
+            int[] offsets = graph.offsets;
+            int[] targets = graph.targets;
+            int start = (int) ((long) frontierSize * from / slices);
+            int end = (int) ((long) frontierSize * to / slices);
+            int[] buffer = new int[Math.max(16, end - start)];
+            int size = 0;
+            for (int i = start; i < end; i++) {
+                int u = frontier[i];
+                for (int e = offsets[u], stop = offsets[u + 1]; e < stop; e++) {
+                    int v = targets[e];
+                    if (parents.get(v) < 0 && parents.compareAndSet(v, -1, u)) {
+                        distances[v] = level;
+                        if (size == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, size * 2);
+                        }
+                        buffer[size++] = v;
+                    }
+                }
+            }
+            chunks[from] = buffer;
+            chunkSizes[from] = size;
+        }
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,241 @@
+import java.io.*;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.*;
+
+// Feature 4: Worker process of DistributedBFS: owns one hash partition of the nodes and their adjacency rows
+// Started by the coordinator as `java PartitionWorker <host> <port> <index>`; connects back, maps the graph
+// file named by LOAD and copies only the rows of its own nodes, then answers commands until SHUTDOWN.
+// Per BFS level it expands its share of the frontier, resolves candidates for its own nodes locally and sends
+// the rest, once per remote node and query, to the coordinator, which forwards them to their owners.
+// Candidates carry the key (parent position in the frontier, index of the node in the parent's row); the smallest
+// key wins, which is exactly the parent the sequential FIFO queue of BFSRouter would pick.
+public final class PartitionWorker {
+    // Commands, coordinator -> worker
+    static final int LOAD = 1;
+    static final int QUERY = 2;
+    static final int EXPAND = 3;
+    static final int DISCOVER = 4;
+    static final int PARENT = 5;
+    static final int SHUTDOWN = 6;
+
+    private final int index;
+    private int workers;
+    private int[] owned = new int[0];   // Global ids of owned nodes, ascending
+    private int[] offsets = new int[1]; // Local CSR over owned nodes, targets are global ids
+    private int[] targets = new int[0];
+
+    // Per query, indexed by local id
+    private int[] visited = new int[0];
+    private int[] parent = new int[0];
+    private int epoch;
+
+    // Per query, indexed by global id: epoch at which a candidate for a remote node was sent
+    // A remote node sent once is reached by the end of that level, so later levels never send it again.
+    private int[] remoteSent = new int[0];
+
+    // Per level candidates for owned nodes, indexed by local id
+    private int[] candidateStamp = new int[0];
+    private long[] candidateKey = new long[0];
+    private int[] candidateParent = new int[0];
+    private int[] candidates = new int[0];
+    private int candidateCount;
+    private int level;
+
+    private PartitionWorker(int index) {
+        this.index = index;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            System.err.println("Usage: PartitionWorker <host> <port> <index>");
+            System.exit(2);
+        }
+        int index = Integer.parseInt(args[2]);
+        try (Socket socket = new Socket(InetAddress.getByName(args[0]), Integer.parseInt(args[1]))) {
+            socket.setTcpNoDelay(true);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream(), 1 << 16));
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16));
+            out.writeInt(index);
+            out.flush();
+            new PartitionWorker(index).serve(in, out);
+        }
+    }
+
+    // Helper: Owning worker of a global node id; a multiplicative hash spreads consecutive ids evenly
+    static int ownerOf(int id, int workers) {
+        return (int) (((id * 0x9E3779B97F4A7C15L) >>> 33) % workers);
+    }
+
+    private void serve(DataInputStream in, DataOutputStream out) throws IOException {
+        while (true) {
+            int command = in.readInt();
+            switch (command) {
+                case LOAD -> load(in, out);
+                case QUERY -> startQuery(in);
+                case EXPAND -> expand(in, out);
+                case DISCOVER -> discover(in, out);
+                case PARENT -> {
+                    int local = localId(in.readInt());
+                    out.writeInt(local >= 0 && visited[local] == epoch ? parent[local] : -1);
+                }
+                case SHUTDOWN -> {
+                    return;
+                }
+                default -> throw new IOException("Unknown command " + command);
+            }
+            out.flush();
+        }
+    }
+
+    // LOAD: workers, graph file path (UTF); reply: number of owned nodes
+    // Only the offsets and the owned rows of the mapped file are read, so the whole CSR never is in one heap.
+    private void load(DataInputStream in, DataOutputStream out) throws IOException {
+        workers = in.readInt();
+        MappedGraph graph = GraphFile.map(Path.of(in.readUTF()));
+        int nodeCount = graph.getNodeCount();
+        int n = 0;
+        owned = new int[Math.max(16, nodeCount / workers)];
+        for (int v = 0; v < nodeCount; v++) {
+            if (ownerOf(v, workers) == index) {
+                if (n == owned.length) {
+                    owned = Arrays.copyOf(owned, n * 2);
+                }
+                owned[n++] = v;
+            }
+        }
+        owned = Arrays.copyOf(owned, n);
+        offsets = new int[n + 1];
+        int[] rows = new int[1024];
+        for (int i = 0; i < n; i++) {
+            int start = graph.rowStart(owned[i]);
+            int degree = graph.rowEnd(owned[i]) - start;
+            if (offsets[i] + degree > rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(rows.length * 2, offsets[i] + degree));
+            }
+            for (int d = 0; d < degree; d++) {
+                rows[offsets[i] + d] = graph.target(start + d);
+            }
+            offsets[i + 1] = offsets[i] + degree;
+        }
+        targets = Arrays.copyOf(rows, offsets[n]);
+        visited = new int[n];
+        parent = new int[n];
+        remoteSent = new int[nodeCount];
+        candidateStamp = new int[n];
+        candidateKey = new long[n];
+        candidateParent = new int[n];
+        candidates = new int[n];
+        epoch = 0;
+        level = 0;
+        out.writeInt(n);
+    }
+
+    private int localId(int global) {
+        int local = Arrays.binarySearch(owned, global);
+        return local < 0 ? -1 : local;
+    }
+
+    // QUERY: src; the owner marks the source visited
+    private void startQuery(DataInputStream in) throws IOException {
+        int src = in.readInt();
+        if (++epoch == Integer.MAX_VALUE) {
+            Arrays.fill(visited, 0);
+            Arrays.fill(remoteSent, 0);
+            epoch = 1;
+        }
+        int local = localId(src);
+        if (local >= 0) {
+            visited[local] = epoch;
+            parent[local] = -1;
+        }
+    }
+
+    // EXPAND: count, (id, position) of owned frontier nodes in position order
+    // Reply: localCandidates, then per other worker: count, (node, parent, position, rowIndex) quads
+    private void expand(DataInputStream in, DataOutputStream out) throws IOException {
+        level++;
+        candidateCount = 0;
+        int count = in.readInt();
+        int[][] outgoing = new int[workers][];
+        int[] outgoingSize = new int[workers];
+        int localCandidates = 0;
+        for (int f = 0; f < count; f++) {
+            int u = in.readInt();
+            int position = in.readInt();
+            int local = localId(u);
+            for (int e = offsets[local], end = offsets[local + 1]; e < end; e++) {
+                int v = targets[e];
+                int rowIndex = e - offsets[local];
+                int owner = ownerOf(v, workers);
+                if (owner == index) {
+                    offer(localId(v), u, position, rowIndex);
+                    localCandidates++;
+                } else if (remoteSent[v] != epoch) { // The first candidate sent has the smallest key
+                    remoteSent[v] = epoch;
+                    int[] buffer = outgoing[owner];
+                    int size = outgoingSize[owner];
+                    if (buffer == null || size + 4 > buffer.length) {
+                        buffer = buffer == null ? new int[256] : Arrays.copyOf(buffer, buffer.length * 2);
+                        outgoing[owner] = buffer;
+                    }
+                    buffer[size] = v;
+                    buffer[size + 1] = u;
+                    buffer[size + 2] = position;
+                    buffer[size + 3] = rowIndex;
+                    outgoingSize[owner] = size + 4;
+                }
+            }
+        }
+        out.writeInt(localCandidates);
+        for (int w = 0; w < workers; w++) {
+            if (w == index) {
+                continue;
+            }
+            out.writeInt(outgoingSize[w] / 4);
+            for (int i = 0; i < outgoingSize[w]; i++) {
+                out.writeInt(outgoing[w][i]);
+            }
+        }
+    }
+
+    // DISCOVER: count, quads from other workers for owned nodes
+    // Reply: count, (node, position, rowIndex) of the nodes newly reached at this level
+    private void discover(DataInputStream in, DataOutputStream out) throws IOException {
+        int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            int v = in.readInt();
+            int u = in.readInt();
+            int position = in.readInt();
+            int rowIndex = in.readInt();
+            offer(localId(v), u, position, rowIndex);
+        }
+        out.writeInt(candidateCount);
+        for (int c = 0; c < candidateCount; c++) {
+            int local = candidates[c];
+            visited[local] = epoch;
+            parent[local] = candidateParent[local];
+            out.writeInt(owned[local]);
+            out.writeInt((int) (candidateKey[local] >>> 32));
+            out.writeInt((int) candidateKey[local]);
+        }
+    }
+
+    // Helper: Keep the smallest (position, rowIndex) candidate of an unvisited owned node
+    private void offer(int local, int u, int position, int rowIndex) {
+        if (visited[local] == epoch) {
+            return;
+        }
+        long key = (long) position << 32 | rowIndex;
+        if (candidateStamp[local] != level) { // Levels only grow while the partition is loaded
+            candidateStamp[local] = level;
+            candidateKey[local] = key;
+            candidateParent[local] = u;
+            candidates[candidateCount++] = local;
+        } else if (key < candidateKey[local]) {
+            candidateKey[local] = key;
+            candidateParent[local] = u;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+import java.util.*;
+
+// Routing cache in front of the BFS kernels
+// Two bounded LRU maps:
+//  - routes: (source, destination) -> path, for the exact pairs that are asked again and again
+//  - trees:  source -> full BFS parent array, so any destination of a cached source is answered by
+//            walking parents back, in O(path length)
+// Everything is dropped as soon as Graph.getVersion() moves past the version the cache was filled at.
+public class RouteCache {
+    private final Graph graph;
+    private final LinkedHashMap<RouteQuery, List<String>> routes;
+    private final LinkedHashMap<String, int[]> trees;
+
+    private CompactGraph snapshot;
+    private long version = -1;
+
+    // Counters
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    public RouteCache(Graph graph, int maxRoutes, int maxSources) {
+        if (maxRoutes < 1 || maxSources < 1) {
+            throw new IllegalArgumentException("Cache sizes must be at least 1.");
+        }
+        this.graph = graph;
+        this.routes = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<RouteQuery, List<String>> eldest) {
+                return size() > maxRoutes && evicted();
+            }
+        };
+        this.trees = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, int[]> eldest) {
+                return size() > maxSources && evicted();
+            }
+        };
+    }
+
+    // Shortest path from source to destination, or null if either node is missing or there is no path
+    public synchronized List<String> getPath(String source, String destination) {
+        validate();
+        RouteQuery key = new RouteQuery(source, destination);
+        if (routes.containsKey(key)) {
+            hits++;
+            return routes.get(key);
+        }
+
+        int src = snapshot.idOf(source);
+        int dst = snapshot.idOf(destination);
+        List<String> path = null;
+        if (src >= 0 && dst >= 0) {
+            int[] parent = trees.get(source);
+            if (parent != null) {
+                hits++;
+            } else {
+                misses++;
+                parent = buildTree(src);
+                trees.put(source, parent);
+            }
+            path = parent[dst] < 0 ? null : snapshot.buildPath(parent, src, dst);
+        } else {
+            misses++;
+        }
+        routes.put(key, path);
+        return path;
+    }
+
+    // Helper: Drop everything cached
+    public synchronized void clear() {
+        routes.clear();
+        trees.clear();
+        snapshot = null;
+        version = -1;
+    }
+
+    public synchronized long getHits() {
+        return hits;
+    }
+
+    public synchronized long getMisses() {
+        return misses;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    // Number of times the cache was emptied because the graph changed
+    public synchronized long getInvalidations() {
+        return invalidations;
+    }
+
+    // Invalidate when the graph moved on since the cache was filled
+    private void validate() {
+        long current = graph.getVersion();
+        if (snapshot != null && version == current) {
+            return;
+        }
+        if (!routes.isEmpty() || !trees.isEmpty()) {
+            invalidations++;
+        }
+        routes.clear();
+        trees.clear();
+        snapshot = graph.snapshot();
+        version = current;
+    }
+
+    // Full BFS from src; parent[v] == -1 marks unreachable nodes
+    private int[] buildTree(int src) {
+        int n = snapshot.getNodeCount();
+        BFSScratch scratch = BFSScratch.forThread(n);
+        BFSRouter.search(snapshot, scratch, src, -1, false);
+        int[] parent = new int[n];
+        for (int v = 0; v < n; v++) {
+            parent[v] = scratch.isVisited(v) ? scratch.parent[v] : -1;
+        }
+        return parent;
+    }
+
+    private boolean evicted() {
+        evictions++;
+        return true;
+    }
+}
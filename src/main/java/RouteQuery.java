@@ -0,0 +1,3 @@
+// A single (source, destination) routing request
+public record RouteQuery(String source, String destination) {
+}
@@ -0,0 +1,7 @@
+import java.util.List;
+
+// Common interface of the routing engines (BFSRouter for hop count, DijkstraRouter for edge weights)
+public interface Router {
+    // Best path from source to destination, or null if either node is missing or there is no path
+    List<String> findPath(String source, String destination);
+}
@@ -0,0 +1,184 @@
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+// Routing and graph instrumentation
+// Attach with BFSRouter.setMetrics(...) and watch(graph). Routers without metrics skip the clock reads and
+// the recording, and their kernels skip the level and edge counting (one predictable branch per node
+// instead); only the visited count is always kept. Exposed through JMX
+// (register) and through periodic snapshots to any MetricsExporter (startExporting).
+public class RoutingMetrics implements RoutingMetricsMBean {
+    private final LongAdder queries = new LongAdder();
+    private final LongAdder graphMutations = new LongAdder();
+    private final Histogram latencyNanos = new Histogram();
+    private final Histogram nodesVisited = new Histogram();
+    private final Histogram edgesScanned = new Histogram();
+    private final Histogram frontierSizes = new Histogram();   // One sample per expanded BFS level
+
+    private ScheduledExecutorService scheduler;
+
+    // Count every topology and weight change of a graph
+    public void watch(Graph graph) {
+        graph.addListener(new GraphListener() {
+            @Override
+            public void nodeAdded(String node) {
+                graphMutations.increment();
+            }
+
+            @Override
+            public void nodeRemoved(String node) {
+                graphMutations.increment();
+            }
+
+            @Override
+            public void edgeAdded(String from, String to) {
+                graphMutations.increment();
+            }
+
+            @Override
+            public void edgeRemoved(String from, String to) {
+                graphMutations.increment();
+            }
+
+            @Override
+            public void edgeWeightChanged(String from, String to, double weight) {
+                graphMutations.increment();
+            }
+        });
+    }
+
+    // Called by the router once per executed query
+    void recordQuery(long nanos, BFSScratch scratch) {
+        queries.increment();
+        latencyNanos.record(nanos);
+        nodesVisited.record(scratch.visitedCount);
+        edgesScanned.record(scratch.edgesScanned);
+        for (int i = 0; i < scratch.levels; i++) {
+            frontierSizes.record(scratch.levelSizes[i]);
+        }
+    }
+
+    // Bidirectional queries spread their work over two scratches; visited is the sum of both sides
+    void recordQuery(long nanos, int visited, BFSScratch forward, BFSScratch backward) {
+        queries.increment();
+        latencyNanos.record(nanos);
+        nodesVisited.record(visited);
+        edgesScanned.record(forward.edgesScanned + backward.edgesScanned);
+        for (int i = 0; i < forward.levels; i++) {
+            frontierSizes.record(forward.levelSizes[i]);
+        }
+        for (int i = 0; i < backward.levels; i++) {
+            frontierSizes.record(backward.levelSizes[i]);
+        }
+    }
+
+    public MetricsSnapshot snapshot() {
+        return new MetricsSnapshot(System.currentTimeMillis(), queries.sum(),
+                latencyNanos.percentile(50), latencyNanos.percentile(99), latencyNanos.percentile(99.9),
+                nodesVisited.percentile(50), nodesVisited.percentile(99),
+                edgesScanned.percentile(50), edgesScanned.percentile(99),
+                frontierSizes.percentile(50), frontierSizes.percentile(99),
+                graphMutations.sum());
+    }
+
+    // Publish on the platform MBean server as graphbfs:type=RoutingMetrics,name=<name>
+    public void register(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .registerMBean(this, new ObjectName("graphbfs:type=RoutingMetrics,name=" + name));
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register routing metrics MBean " + name + ".", e);
+        }
+    }
+
+    public void unregister(String name) {
+        try {
+            ManagementFactory.getPlatformMBeanServer()
+                    .unregisterMBean(new ObjectName("graphbfs:type=RoutingMetrics,name=" + name));
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister routing metrics MBean " + name + ".", e);
+        }
+    }
+
+    // Push a snapshot to the exporter every period on a daemon thread; cancel the returned future to stop
+    public synchronized ScheduledFuture<?> startExporting(MetricsExporter exporter, long period, TimeUnit unit) {
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "routing-metrics-exporter");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+        return scheduler.scheduleAtFixedRate(() -> exporter.export(snapshot()), period, period, unit);
+    }
+
+    @Override
+    public long getQueryCount() {
+        return queries.sum();
+    }
+
+    @Override
+    public long getLatencyP50Micros() {
+        return latencyNanos.percentile(50) / 1000;
+    }
+
+    @Override
+    public long getLatencyP99Micros() {
+        return latencyNanos.percentile(99) / 1000;
+    }
+
+    @Override
+    public long getLatencyP999Micros() {
+        return latencyNanos.percentile(99.9) / 1000;
+    }
+
+    @Override
+    public long getNodesVisitedP50() {
+        return nodesVisited.percentile(50);
+    }
+
+    @Override
+    public long getNodesVisitedP99() {
+        return nodesVisited.percentile(99);
+    }
+
+    @Override
+    public long getEdgesScannedP50() {
+        return edgesScanned.percentile(50);
+    }
+
+    @Override
+    public long getEdgesScannedP99() {
+        return edgesScanned.percentile(99);
+    }
+
+    @Override
+    public long getFrontierSizeP50() {
+        return frontierSizes.percentile(50);
+    }
+
+    @Override
+    public long getFrontierSizeP99() {
+        return frontierSizes.percentile(99);
+    }
+
+    @Override
+    public long getGraphMutationCount() {
+        return graphMutations.sum();
+    }
+
+    @Override
+    public void reset() {
+        queries.reset();
+        graphMutations.reset();
+        latencyNanos.reset();
+        nodesVisited.reset();
+        edgesScanned.reset();
+        frontierSizes.reset();
+    }
+}
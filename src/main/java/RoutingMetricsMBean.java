@@ -0,0 +1,26 @@
+// JMX view of RoutingMetrics (standard MBean naming: class RoutingMetrics, interface RoutingMetricsMBean)
+public interface RoutingMetricsMBean {
+    long getQueryCount();
+
+    long getLatencyP50Micros();
+
+    long getLatencyP99Micros();
+
+    long getLatencyP999Micros();
+
+    long getNodesVisitedP50();
+
+    long getNodesVisitedP99();
+
+    long getEdgesScannedP50();
+
+    long getEdgesScannedP99();
+
+    long getFrontierSizeP50();
+
+    long getFrontierSizeP99();
+
+    long getGraphMutationCount();
+
+    void reset();
+}
@@ -0,0 +1,40 @@
+import javafx.concurrent.Task;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+
+// Feature 4 + 6: BFS routing off the JavaFX application thread
+// Runs runBFS on an immutable CompactGraph snapshot with its own BFSRouter, so nothing is shared with the
+// UI while it runs. The visit order is streamed to the UI through a bounded queue of batches
+// (see VisitBatcher) and the log is rendered here too, so the UI thread only has to display results.
+// The log keeps the last LOG_EVENTS traversal events, so its size does not grow with the graph.
+// cancel() stops the traversal at the next batch.
+public class RoutingTask extends Task<RoutingTask.Result> {
+    private static final int BATCH_SIZE = 1024;
+    private static final int LOG_EVENTS = 4096;
+
+    private final CompactGraph graph;
+    private final String source;
+    private final String destination;
+    private final BlockingQueue<int[]> progress;
+
+    // Shortest path (null if none) and the rendered log, ready for a TextArea
+    public record Result(List<String> path, String log) {
+    }
+
+    public RoutingTask(CompactGraph graph, String source, String destination, BlockingQueue<int[]> progress) {
+        this.graph = graph;
+        this.source = source;
+        this.destination = destination;
+        this.progress = progress;
+    }
+
+    @Override
+    protected Result call() {
+        BFSRouter router = new BFSRouter(graph, LOG_EVENTS);
+        VisitBatcher batcher = new VisitBatcher(progress, BATCH_SIZE, this::isCancelled);
+        List<String> path = router.runBFS(source, destination, batcher);
+        batcher.flush();
+        updateMessage("Rendering log...");
+        return new Result(path, String.join("\n", router.getLogs()) + "\n");
+    }
+}
@@ -0,0 +1,129 @@
+import java.util.*;
+
+// Feature 8: Compact in-memory trace of one traversal
+// Every event is packed into a single long (2-bit type, 31-bit parent, 31-bit node) in a ring buffer
+// that grows up to maxEvents and then overwrites the oldest events. Nothing is turned into text until
+// render() is called, e.g. when the GUI shows the log.
+public class TraceBuffer implements TraceListener {
+    static final int DEQUEUE = 0;
+    static final int ENQUEUE = 1;
+    static final int FOUND = 2;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final int maxEvents;
+    private long[] events;
+    private long count; // Events recorded since clear(), including overwritten ones
+
+    public TraceBuffer(int maxEvents) {
+        if (maxEvents < 1) {
+            throw new IllegalArgumentException("Trace capacity must be at least 1.");
+        }
+        int capped = Math.min(maxEvents, 1 << 30);
+        this.maxEvents = capped == 1 ? 1 : Integer.highestOneBit(capped - 1) << 1; // Power of two for masking
+        this.events = new long[Math.min(INITIAL_CAPACITY, this.maxEvents)];
+    }
+
+    // Holds the full trace of graphs up to a few million nodes
+    public TraceBuffer() {
+        this(1 << 22);
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    @Override
+    public void onDequeue(int node) {
+        add((long) DEQUEUE << 62 | node);
+    }
+
+    @Override
+    public void onEnqueue(int node, int parent) {
+        add((long) ENQUEUE << 62 | (long) parent << 31 | node);
+    }
+
+    @Override
+    public void onFound(int node) {
+        add((long) FOUND << 62 | node);
+    }
+
+    private void add(long event) {
+        if (count == events.length && events.length < maxEvents) {
+            events = Arrays.copyOf(events, events.length * 2);
+        }
+        events[(int) (count & (events.length - 1))] = event;
+        count++;
+    }
+
+    // Helper: Number of events still held
+    public int size() {
+        return (int) Math.min(count, events.length);
+    }
+
+    // Helper: Number of oldest events overwritten because the buffer was full
+    public long dropped() {
+        return count - size();
+    }
+
+    // Event i of the retained events, oldest first
+    private long event(int i) {
+        return events[(int) ((dropped() + i) & (events.length - 1))];
+    }
+
+    int type(int i) {
+        return (int) (event(i) >>> 62);
+    }
+
+    int node(int i) {
+        return (int) (event(i) & 0x7FFFFFFFL);
+    }
+
+    int parent(int i) {
+        return (int) (event(i) >>> 31 & 0x7FFFFFFFL);
+    }
+
+    // Render the retained events as log lines ("Dequeued:", "Visiting:", "Queueing:")
+    public void render(CompactGraph graph, List<String> out) {
+        if (dropped() > 0) {
+            out.add("... " + dropped() + " earlier trace events dropped ...");
+            out.add("");
+        }
+        StringJoiner queued = null;
+        for (int i = 0, size = size(); i < size; i++) {
+            int type = type(i);
+            if (type == ENQUEUE) {
+                if (queued == null) {
+                    queued = new StringJoiner(", ");
+                }
+                queued.add(graph.nameOf(node(i)));
+                continue;
+            }
+            if (queued != null) {
+                out.add("Queueing: " + queued);
+                out.add("");
+                queued = null;
+            }
+            if (type == DEQUEUE) {
+                String name = graph.nameOf(node(i));
+                out.add("Dequeued: " + name);
+                out.add("");
+                out.add("Visiting: " + name);
+            }
+        }
+        if (queued != null) {
+            out.add("Queueing: " + queued);
+            out.add("");
+        }
+    }
+
+    // Names of the dequeued nodes in visiting order
+    public List<String> visitedNodes(CompactGraph graph) {
+        List<String> visited = new ArrayList<>();
+        for (int i = 0, size = size(); i < size; i++) {
+            if (type(i) == DEQUEUE) {
+                visited.add(graph.nameOf(node(i)));
+            }
+        }
+        return visited;
+    }
+}
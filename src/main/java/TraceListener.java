@@ -0,0 +1,47 @@
+// Feature 8: Receives structured traversal events from the BFS kernels
+// Events carry int node ids of the CompactGraph being traversed. Only the traced kernel (runBFS) calls a
+// listener; the quiet queries run a separate kernel without these calls. NONE stands for "no observer".
+public interface TraceListener {
+    TraceListener NONE = new TraceListener() {
+        @Override
+        public void onDequeue(int node) {
+        }
+
+        @Override
+        public void onEnqueue(int node, int parent) {
+        }
+
+        @Override
+        public void onFound(int node) {
+        }
+    };
+
+    // Helper: Listener forwarding every event to first, then to second
+    static TraceListener both(TraceListener first, TraceListener second) {
+        return new TraceListener() {
+            @Override
+            public void onDequeue(int node) {
+                first.onDequeue(node);
+                second.onDequeue(node);
+            }
+
+            @Override
+            public void onEnqueue(int node, int parent) {
+                first.onEnqueue(node, parent);
+                second.onEnqueue(node, parent);
+            }
+
+            @Override
+            public void onFound(int node) {
+                first.onFound(node);
+                second.onFound(node);
+            }
+        };
+    }
+
+    void onDequeue(int node);
+
+    void onEnqueue(int node, int parent);
+
+    void onFound(int node);
+}
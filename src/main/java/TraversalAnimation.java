@@ -0,0 +1,78 @@
+import javafx.animation.AnimationTimer;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+
+// Feature 6: Replays a BFS visit order on a GraphCanvas in O(V) total work
+// One timer instead of one KeyFrame per node: each pulse takes the batches a running RoutingTask has
+// published so far, lights only the nodes whose time has come since the previous pulse, and once finish()
+// delivered the path, the final frame clears the traversal and shows the path. The step delay shrinks
+// as more nodes arrive so the whole replay never takes longer than about maxDurationMs.
+public class TraversalAnimation extends AnimationTimer {
+    private final GraphCanvas view;
+    private final BlockingQueue<int[]> batches;
+    private final long stepMs;
+    private final long maxDurationMs;
+
+    private int[] visited = new int[1024];
+    private int size;
+    private int shown;
+    private int[] path;           // null until the traversal finished
+
+    private long lastNanos = -1;
+    private long credit;          // Time earned since the last lit node
+
+    public TraversalAnimation(GraphCanvas view, BlockingQueue<int[]> batches, long stepMs, long maxDurationMs) {
+        this.view = view;
+        this.batches = batches;
+        this.stepMs = stepMs;
+        this.maxDurationMs = maxDurationMs;
+    }
+
+    @Override
+    public void start() {
+        lastNanos = -1;
+        view.resetStates();
+        super.start();
+    }
+
+    // The traversal is done and every batch has been published; show the path after the last node
+    public void finish(int[] path) {
+        this.path = path;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (lastNanos >= 0) {
+            credit += now - lastNanos;
+        }
+        lastNanos = now;
+
+        int[] batch;
+        while ((batch = batches.poll()) != null) {
+            if (size + batch.length > visited.length) {
+                visited = Arrays.copyOf(visited, Math.max(visited.length * 2, size + batch.length));
+            }
+            System.arraycopy(batch, 0, visited, size, batch.length);
+            size += batch.length;
+        }
+
+        // In nanoseconds: a whole-millisecond floor would stop the cap from holding past maxDurationMs nodes
+        long step = Math.max(1, Math.min(stepMs * 1_000_000L, maxDurationMs * 1_000_000L / (size + 1L)));
+        while (shown < size && credit >= step) {
+            view.setState(visited[shown++], GraphCanvas.VISITED);
+            credit -= step;
+        }
+        if (shown < size) {
+            return;
+        }
+        if (path != null && credit >= step) {
+            stop();
+            view.resetStates();
+            for (int v : path) {
+                view.setState(v, GraphCanvas.ON_PATH);
+            }
+        } else {
+            credit = Math.min(credit, step); // Waiting for the producer: no burst when it catches up
+        }
+    }
+}
@@ -0,0 +1,263 @@
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+// Feature 7: Multi-version graph for concurrent readers and writers
+// Readers call current() and route on the returned GraphVersion without any lock; it never changes under
+// them, however many updates are published meanwhile. Writers group mutations into a Batch, which works on
+// private copies of the rows it touches and is published with one AtomicReference.set when committed.
+// Writers are serialized with each other, never with readers. Once the overlay replaces more than a quarter
+// of the base rows, the committing writer folds it into a fresh CSR base (compaction).
+public class VersionedGraph {
+    private static final int MIN_COMPACTION_ROWS = 1024;
+
+    private final AtomicReference<GraphVersion> current;
+    private final Object writeLock = new Object();
+    private long compactions;
+
+    public VersionedGraph() {
+        this(CompactGraph.fromEdges(new String[0], new int[0], new int[0], 0));
+    }
+
+    // Start from the topology of a snapshot, e.g. graph.snapshot(), GraphFile.load or EdgeListImporter
+    public VersionedGraph(CompactGraph base) {
+        this.current = new AtomicReference<>(GraphVersion.ofBase(0, base));
+    }
+
+    // Latest published version; lock-free
+    public GraphVersion current() {
+        return current.get();
+    }
+
+    // Apply a group of mutations and publish them as one new version; returns the published version
+    public GraphVersion update(Consumer<Batch> changes) {
+        synchronized (writeLock) {
+            Batch batch = new Batch(current.get());
+            changes.accept(batch);
+            GraphVersion next = batch.build();
+            current.set(next);
+            return next;
+        }
+    }
+
+    public long getCompactionCount() {
+        synchronized (writeLock) {
+            return compactions;
+        }
+    }
+
+    // Mutations of one update() call, applied on copy-on-write rows of the version they started from
+    // Methods return false (and change nothing) when the mutation does not apply, like Graph's checks.
+    public final class Batch {
+        private final GraphVersion from;
+        private final Map<Integer, int[]> rows = new HashMap<>();   // Rows owned by this batch
+        private final Map<Integer, Integer> sizes = new HashMap<>(); // Used length of owned rows with spare room
+        private String[][] addedNames;   // Starts as the chunk table of from; appended to in place
+        private int addedCount;
+        private int nodeCount;
+        private int edgeCount;
+
+        private Batch(GraphVersion from) {
+            this.from = from;
+            this.addedNames = from.addedNames;
+            this.addedCount = from.addedCount;
+            this.nodeCount = from.getNodeCount();
+            this.edgeCount = from.getEdgeCount();
+        }
+
+        public boolean addNode(String node) {
+            int id = lookup(node);
+            if (id >= 0) {
+                if (row(id) != GraphVersion.TOMBSTONE) {
+                    return false;
+                }
+                set(id, new int[0], 0); // Removed earlier: revive under the same id
+            } else {
+                // Slots past from.addedCount are invisible to published versions, so they are written in
+                // place; only a new chunk copies the chunk table
+                int chunk = addedCount >>> GraphVersion.PAGE_BITS;
+                if (chunk == addedNames.length) {
+                    addedNames = Arrays.copyOf(addedNames, chunk + 1);
+                }
+                if (addedNames[chunk] == null) {
+                    addedNames[chunk] = new String[GraphVersion.PAGE_SIZE];
+                }
+                addedNames[chunk][addedCount & GraphVersion.PAGE_MASK] = node;
+                id = from.base.getNodeCount() + addedCount++;
+                from.addedIds.put(node, id);
+                set(id, new int[0], 0);
+            }
+            nodeCount++;
+            return true;
+        }
+
+        public boolean removeNode(String node) {
+            int id = liveId(node);
+            if (id < 0) {
+                return false;
+            }
+            int[] row = row(id);
+            int size = size(id, row);
+            for (int i = 0; i < size; i++) {
+                removeFromRow(row[i], id);
+            }
+            edgeCount -= size;
+            set(id, GraphVersion.TOMBSTONE, 0);
+            nodeCount--;
+            return true;
+        }
+
+        public boolean addEdge(String from, String to) {
+            int a = liveId(from);
+            int b = liveId(to);
+            if (a < 0 || b < 0 || a == b || indexIn(a, b) >= 0) {
+                return false;
+            }
+            append(a, b);
+            append(b, a);
+            edgeCount++;
+            return true;
+        }
+
+        public boolean removeEdge(String from, String to) {
+            int a = liveId(from);
+            int b = liveId(to);
+            if (a < 0 || b < 0 || indexIn(a, b) < 0) {
+                return false;
+            }
+            removeFromRow(a, b);
+            removeFromRow(b, a);
+            edgeCount--;
+            return true;
+        }
+
+        // Helper: Id of a name in this batch, live or removed, or -1
+        private int lookup(String node) {
+            int id = from.base.idOf(node);
+            if (id < 0) {
+                id = GraphVersion.addedIdOf(from.base, addedNames, addedCount, from.addedIds, node);
+            }
+            return id;
+        }
+
+        private int liveId(String node) {
+            int id = lookup(node);
+            return id >= 0 && row(id) != GraphVersion.TOMBSTONE ? id : -1;
+        }
+
+        // Helper: Current row of a node as an int[] (base rows are copied on first access)
+        private int[] row(int id) {
+            int[] row = rows.get(id);
+            if (row != null) {
+                return row;
+            }
+            row = from.row(id);
+            if (row == null) {
+                row = Arrays.copyOfRange(from.base.targets, from.base.offsets[id], from.base.offsets[id + 1]);
+            }
+            return row;
+        }
+
+        private int size(int id, int[] row) {
+            Integer size = sizes.get(id);
+            return size == null ? row.length : size;
+        }
+
+        private void set(int id, int[] row, int size) {
+            rows.put(id, row);
+            if (size == row.length) {
+                sizes.remove(id);
+            } else {
+                sizes.put(id, size);
+            }
+        }
+
+        // Helper: Position of target in id's row, or -1; reads the row where it lives, without copying
+        private int indexIn(int id, int target) {
+            int[] row = rows.get(id);
+            int size = row == null ? 0 : size(id, row);
+            if (row == null) {
+                row = from.row(id);
+                size = row == null ? 0 : row.length;
+            }
+            if (row == null) {
+                int start = from.base.offsets[id];
+                for (int e = start, end = from.base.offsets[id + 1]; e < end; e++) {
+                    if (from.base.targets[e] == target) {
+                        return e - start;
+                    }
+                }
+                return -1;
+            }
+            for (int i = 0; i < size; i++) {
+                if (row[i] == target) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        // Amortized O(1): rows owned by this batch grow with spare capacity, trimmed in build()
+        private void append(int id, int target) {
+            int[] row = row(id);
+            int size = size(id, row);
+            if (!rows.containsKey(id) || size == row.length) {
+                row = Arrays.copyOf(row, Math.max(4, size * 2));
+            }
+            row[size] = target;
+            set(id, row, size + 1);
+        }
+
+        // Keeps the order of the remaining neighbors
+        private void removeFromRow(int id, int target) {
+            int index = indexIn(id, target);
+            if (index < 0) {
+                return;
+            }
+            int[] row = row(id);
+            int size = size(id, row);
+            if (!rows.containsKey(id)) {
+                row = row.clone();
+            }
+            System.arraycopy(row, index + 1, row, index, size - index - 1);
+            set(id, row, size - 1);
+        }
+
+        private GraphVersion build() {
+            if (rows.isEmpty()) {
+                return from;
+            }
+            int idCount = from.base.getNodeCount() + addedCount;
+
+            // Copy the page table, then each touched page once
+            int[][][] pages = Arrays.copyOf(from.pages, (idCount + GraphVersion.PAGE_MASK) >>> GraphVersion.PAGE_BITS);
+            boolean[] copied = new boolean[pages.length];
+            int overlayRows = from.overlayRows;
+            for (Map.Entry<Integer, int[]> entry : rows.entrySet()) {
+                int id = entry.getKey();
+                int[] row = entry.getValue();
+                Integer size = sizes.get(id);
+                if (size != null) {
+                    row = Arrays.copyOf(row, size);
+                }
+                int page = id >>> GraphVersion.PAGE_BITS;
+                if (!copied[page]) {
+                    pages[page] = pages[page] == null ? new int[GraphVersion.PAGE_SIZE][] : pages[page].clone();
+                    copied[page] = true;
+                }
+                if (pages[page][id & GraphVersion.PAGE_MASK] == null) {
+                    overlayRows++;
+                }
+                pages[page][id & GraphVersion.PAGE_MASK] = row;
+            }
+
+            GraphVersion next = new GraphVersion(from.version + 1, from.base, pages, addedNames, addedCount,
+                    from.addedIds, overlayRows, nodeCount, edgeCount);
+            if (overlayRows > Math.max(MIN_COMPACTION_ROWS, from.base.getNodeCount() / 4)) {
+                compactions++;
+                return GraphVersion.ofBase(next.version, next.toCompactGraph());
+            }
+            return next;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+
+// Feature 6: Publishes the visit order of a running traversal in batches
+// Dequeued node ids are collected into int[] batches that are put on a bounded queue. When the consumer
+// (the GUI) falls behind, put() blocks, so a huge traversal cannot pile up unbounded progress data.
+// The traversal is aborted with a CancellationException at the next batch once cancelled reports true,
+// or when the blocked thread is interrupted.
+public class VisitBatcher implements TraceListener {
+    private final BlockingQueue<int[]> queue;
+    private final BooleanSupplier cancelled;
+    private int[] batch;
+    private int count;
+
+    public VisitBatcher(BlockingQueue<int[]> queue, int batchSize, BooleanSupplier cancelled) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be at least 1.");
+        }
+        this.queue = queue;
+        this.cancelled = cancelled;
+        this.batch = new int[batchSize];
+    }
+
+    @Override
+    public void onDequeue(int node) {
+        batch[count++] = node;
+        if (count == batch.length) {
+            publish(batch);
+            batch = new int[batch.length];
+            count = 0;
+        }
+    }
+
+    @Override
+    public void onEnqueue(int node, int parent) {
+    }
+
+    @Override
+    public void onFound(int node) {
+    }
+
+    // Publish the last, partial batch; call once the traversal finished
+    public void flush() {
+        if (count > 0) {
+            publish(Arrays.copyOf(batch, count));
+            count = 0;
+        }
+    }
+
+    private void publish(int[] nodes) {
+        if (cancelled.getAsBoolean()) {
+            throw new CancellationException("Traversal cancelled.");
+        }
+        try {
+            queue.put(nodes);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Traversal cancelled.");
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BFSRouterTest {
+    private static final int NODES = 2000;
+
+    @Test
+    void quietQueriesMatchRunBfs() {
+        Graph graph = isolatedTail(TestGraphs.random(NODES, NODES, 51));
+        BFSRouter traced = new BFSRouter(graph);
+        BFSRouter router = new BFSRouter(graph.snapshot());
+        Random random = new Random(51);
+        for (int q = 0; q < 500; q++) {
+            String source = TestGraphs.name(random.nextInt(NODES));
+            String destination = TestGraphs.name(random.nextInt(NODES));
+            assertEquals(traced.runBFS(source, destination), router.findPath(source, destination));
+        }
+    }
+
+    // Bidirectional search may pick another path among equally short ones, never a longer one
+    @Test
+    void bidirectionalPathsHaveRunBfsHopCounts() {
+        Graph graph = isolatedTail(TestGraphs.random(NODES, NODES, 53));
+        BFSRouter traced = new BFSRouter(graph);
+        BFSRouter router = new BFSRouter(graph.snapshot());
+        Random random = new Random(53);
+        int noPath = 0;
+        for (int q = 0; q < 500; q++) {
+            String source = TestGraphs.name(random.nextInt(NODES));
+            String destination = TestGraphs.name(random.nextInt(NODES));
+            List<String> expected = traced.runBFS(source, destination);
+            List<String> path = router.findPathBidirectional(source, destination);
+            if (expected == null) {
+                assertNull(path, source + " -> " + destination);
+                noPath++;
+                continue;
+            }
+            assertEquals(expected.size(), path.size(), source + " -> " + destination);
+            assertTrue(TestGraphs.isPath(graph, source, destination, path), String.valueOf(path));
+        }
+        assertTrue(noPath > 0, "no unreachable pair was sampled");
+    }
+
+    @Test
+    void bidirectionalEdgeCases() {
+        Graph graph = TestGraphs.grid(5, 5);
+        graph.addNode("lonely");
+        BFSRouter router = new BFSRouter(graph.snapshot());
+        assertEquals(List.of("n0", "n1"), router.findPathBidirectional("n0", "n1"));
+        assertEquals(List.of("n1", "n0"), router.findPathBidirectional("n1", "n0"));
+        assertEquals(List.of("n7"), router.findPathBidirectional("n7", "n7"));
+        assertNull(router.findPathBidirectional("n0", "lonely"));
+        assertNull(router.findPathBidirectional("n0", "missing"));
+        assertEquals(9, router.findPathBidirectional("n0", "n24").size());
+    }
+
+    @Test
+    void visitedCountCoversBothSides() {
+        BFSRouter router = new BFSRouter(TestGraphs.grid(20, 20).snapshot());
+        router.findPath("n0", "n399");
+        assertEquals(400, router.getLastVisitedCount());
+        router.findPathBidirectional("n0", "n399");
+        int both = router.getLastVisitedCount();
+        assertTrue(both > 2 && both <= 800, "visited " + both);
+        router.findPath("n0", "n1");
+        assertTrue(router.getLastVisitedCount() < 10);
+    }
+
+    // Helper: Leave the last 50 nodes without edges, so some pairs have no path
+    private static Graph isolatedTail(Graph graph) {
+        for (int i = NODES - 50; i < NODES; i++) {
+            for (String neighbor : new ArrayList<>(graph.getNeighbors(TestGraphs.name(i)))) {
+                graph.removeEdge(TestGraphs.name(i), neighbor);
+            }
+        }
+        return graph;
+    }
+}
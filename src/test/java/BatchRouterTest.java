@@ -0,0 +1,54 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Batch answers come from a shared top-down sweep per source, so they must equal findPath exactly
+class BatchRouterTest {
+    private static final int NODES = 1500;
+
+    @Test
+    void batchAnswersMatchFindPath() {
+        Graph graph = TestGraphs.random(NODES, NODES, 73);
+        graph.addNode("lonely");
+        CompactGraph snapshot = graph.snapshot();
+        BFSRouter router = new BFSRouter(snapshot);
+        Random random = new Random(73);
+        List<RouteQuery> queries = new ArrayList<>();
+        for (int s = 0; s < 40; s++) {
+            String source = TestGraphs.name(random.nextInt(NODES));
+            for (int d = 0; d < 10; d++) {
+                queries.add(new RouteQuery(source, TestGraphs.name(random.nextInt(NODES))));
+            }
+            queries.add(new RouteQuery(source, source));
+            queries.add(new RouteQuery(source, "missing"));
+            queries.add(new RouteQuery(source, "lonely"));
+            queries.add(queries.get(queries.size() - 4)); // Same destination twice in one group
+        }
+        queries.add(new RouteQuery("missing", "n0"));
+
+        try (BatchRouter batch = new BatchRouter(snapshot, 4)) {
+            List<List<String>> results = batch.routeAll(queries);
+            assertEquals(queries.size(), results.size());
+            for (int i = 0; i < queries.size(); i++) {
+                RouteQuery query = queries.get(i);
+                assertEquals(router.findPath(query.source(), query.destination()), results.get(i), query.toString());
+            }
+        }
+    }
+
+    @Test
+    void groupWithOnlyUnknownDestinationsHasNoPaths() {
+        Graph graph = TestGraphs.grid(10, 10);
+        try (BatchRouter batch = new BatchRouter(graph, 2)) {
+            List<List<String>> results = batch.routeAll(List.of(
+                    new RouteQuery("n0", "missing"),
+                    new RouteQuery("n0", "gone"),
+                    new RouteQuery("n5", "n7")));
+            assertNull(results.get(0));
+            assertNull(results.get(1));
+            assertEquals(List.of("n5", "n6", "n7"), results.get(2));
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactGraphTest {
+
+    // Ids follow getAllNodes() and every row lists the neighbors in getNeighbors() order
+    @Test
+    void snapshotRowsFollowTheGraph() {
+        Graph graph = TestGraphs.random(500, 1200, 83);
+        graph.addNode("lonely");
+        CompactGraph compact = graph.snapshot();
+
+        assertEquals(new ArrayList<>(graph.getAllNodes()), Arrays.asList(compact.names));
+        assertEquals(graph.getAllEdges().size(), compact.getEdgeCount());
+        assertNull(compact.weights);
+        assertNull(compact.xs);
+        for (int id = 0; id < compact.getNodeCount(); id++) {
+            String name = compact.nameOf(id);
+            assertEquals(id, compact.idOf(name));
+            List<String> row = new ArrayList<>();
+            for (int e = compact.offsets[id]; e < compact.offsets[id + 1]; e++) {
+                row.add(compact.nameOf(compact.targets[e]));
+                assertEquals(1.0, compact.weight(e));
+            }
+            assertEquals(new ArrayList<>(graph.getNeighbors(name)), row, name);
+            assertEquals(row.size(), compact.degree(id));
+        }
+        assertEquals(-1, compact.idOf("missing"));
+        assertFalse(compact.hasNode("missing"));
+    }
+
+    // Later edits to the graph do not reach an existing snapshot
+    @Test
+    void weightsAndPositionsAreCopied() {
+        Graph graph = TestGraphs.grid(3, 3);
+        graph.addEdge("n0", "n1", 2.5);
+        graph.setNodePosition("n4", 10, -20);
+        CompactGraph compact = graph.snapshot();
+        graph.addEdge("n0", "n1", 7);
+        graph.removeNode("n8");
+
+        int n0 = compact.idOf("n0");
+        int n1 = compact.idOf("n1");
+        for (int e = compact.offsets[n0]; e < compact.offsets[n0 + 1]; e++) {
+            assertEquals(compact.targets[e] == n1 ? 2.5 : 1.0, compact.weight(e));
+        }
+        for (int e = compact.offsets[n1]; e < compact.offsets[n1 + 1]; e++) {
+            assertEquals(compact.targets[e] == n0 ? 2.5 : 1.0, compact.weight(e));
+        }
+        int n4 = compact.idOf("n4");
+        for (int id = 0; id < compact.getNodeCount(); id++) {
+            assertEquals(id == n4 ? 10f : Float.NaN, compact.xs[id]);
+            assertEquals(id == n4 ? -20f : Float.NaN, compact.ys[id]);
+        }
+        assertEquals(9, compact.getNodeCount());
+        assertEquals(12, compact.getEdgeCount());
+    }
+
+    @Test
+    void buildPathWalksParentsBackToTheSource() {
+        CompactGraph compact = TestGraphs.grid(4, 1).snapshot();
+        int[] parent = new int[4];
+        int n0 = compact.idOf("n0");
+        int n1 = compact.idOf("n1");
+        int n2 = compact.idOf("n2");
+        int n3 = compact.idOf("n3");
+        parent[n0] = 99; // Never read
+        parent[n1] = n0;
+        parent[n2] = n1;
+        parent[n3] = n2;
+
+        assertEquals(List.of("n0", "n1", "n2", "n3"), compact.buildPath(parent, n0, n3));
+        assertEquals(List.of("n0", "n1"), compact.buildPath(parent, n0, n1));
+        assertEquals(List.of("n0"), compact.buildPath(parent, n0, n0));
+        assertEquals(List.of("n1", "n2"), compact.buildPath(parent, n1, n2));
+        assertNull(compact.buildPath(parent, n0, -1));
+    }
+}
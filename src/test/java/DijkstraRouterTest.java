@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Costs are checked against Bellman-Ford over the edge list, which shares no code with the heap-based search
+class DijkstraRouterTest {
+    private static final int NODES = 300;
+
+    @Test
+    void dijkstraAndAStarCostsMatchBellmanFord() {
+        for (long seed = 61; seed < 64; seed++) {
+            Graph graph = TestGraphs.randomWeighted(NODES, 3 * NODES, 9, seed);
+            placeOnCircle(graph); // Positions make the A* router actually use its heuristic
+            DijkstraRouter dijkstra = new DijkstraRouter(graph, false);
+            DijkstraRouter aStar = new DijkstraRouter(graph, true);
+            Random random = new Random(seed);
+            for (int q = 0; q < 20; q++) {
+                String source = TestGraphs.name(random.nextInt(NODES));
+                double[] reference = bellmanFord(graph, source);
+                for (int t = 0; t < 10; t++) {
+                    String destination = TestGraphs.name(random.nextInt(NODES));
+                    double expected = reference[Integer.parseInt(destination.substring(1))];
+                    assertCost(graph, dijkstra, source, destination, expected);
+                    assertCost(graph, aStar, source, destination, expected);
+                }
+            }
+        }
+    }
+
+    @Test
+    void aStarSettlesNoMoreNodesThanDijkstraOnAGrid() {
+        Graph graph = TestGraphs.grid(40, 40);
+        for (int i = 0; i < 1600; i++) {
+            graph.setNodePosition(TestGraphs.name(i), i % 40, i / 40);
+        }
+        DijkstraRouter dijkstra = new DijkstraRouter(graph, false);
+        DijkstraRouter aStar = new DijkstraRouter(graph, true);
+        assertEquals(78, dijkstra.findPath("n0", "n1599").size() - 1);
+        int settledByDijkstra = dijkstra.getLastSettledCount();
+        assertEquals(78, aStar.findPath("n0", "n1599").size() - 1);
+        assertEquals(78.0, aStar.getLastCost());
+        assertTrue(aStar.getLastSettledCount() <= settledByDijkstra);
+    }
+
+    @Test
+    void heapPollsInKeyOrderAfterDecreases() {
+        IndexedMinHeap heap = new IndexedMinHeap();
+        heap.ensureCapacity(1000);
+        Random random = new Random(67);
+        double[] keys = new double[1000];
+        Arrays.fill(keys, Double.POSITIVE_INFINITY);
+        for (int i = 0; i < 5000; i++) {
+            int id = random.nextInt(1000);
+            double key = random.nextDouble() * 100;
+            if (key < keys[id]) {
+                keys[id] = key;
+            }
+            heap.insertOrDecrease(id, key);
+        }
+        double last = Double.NEGATIVE_INFINITY;
+        int polled = 0;
+        while (!heap.isEmpty()) {
+            int id = heap.poll();
+            assertTrue(keys[id] >= last, "out of order at " + id);
+            last = keys[id];
+            polled++;
+        }
+        assertEquals(Arrays.stream(keys).filter(Double::isFinite).count(), polled);
+    }
+
+    private static void assertCost(Graph graph, DijkstraRouter router, String source, String destination,
+                                   double expected) {
+        List<String> path = router.findPath(source, destination);
+        if (Double.isInfinite(expected)) {
+            assertNull(path, source + " -> " + destination);
+            return;
+        }
+        assertTrue(TestGraphs.isPath(graph, source, destination, path), String.valueOf(path));
+        double cost = 0;
+        for (int i = 1; i < path.size(); i++) {
+            cost += graph.getWeight(path.get(i - 1), path.get(i));
+        }
+        assertEquals(expected, cost, 1e-9, source + " -> " + destination);
+        assertEquals(expected, router.getLastCost(), 1e-9, source + " -> " + destination);
+    }
+
+    // Helper: Relax every edge n - 1 times; indexed by the number in the node name
+    private static double[] bellmanFord(Graph graph, String source) {
+        double[] dist = new double[NODES];
+        Arrays.fill(dist, Double.POSITIVE_INFINITY);
+        dist[Integer.parseInt(source.substring(1))] = 0;
+        List<String[]> edges = graph.getAllEdges();
+        for (int round = 1; round < NODES; round++) {
+            boolean changed = false;
+            for (String[] edge : edges) {
+                int a = Integer.parseInt(edge[0].substring(1));
+                int b = Integer.parseInt(edge[1].substring(1));
+                double w = graph.getWeight(edge[0], edge[1]);
+                if (dist[a] + w < dist[b]) {
+                    dist[b] = dist[a] + w;
+                    changed = true;
+                }
+                if (dist[b] + w < dist[a]) {
+                    dist[a] = dist[b] + w;
+                    changed = true;
+                }
+            }
+            if (!changed) {
+                break;
+            }
+        }
+        return dist;
+    }
+
+    private static void placeOnCircle(Graph graph) {
+        for (int i = 0; i < NODES; i++) {
+            double angle = 2 * Math.PI * i / NODES;
+            graph.setNodePosition(TestGraphs.name(i), (int) (500 * Math.cos(angle)), (int) (500 * Math.sin(angle)));
+        }
+    }
+}
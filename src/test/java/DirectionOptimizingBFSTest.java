@@ -0,0 +1,38 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Bottom-up levels fill dist[] from the unvisited side; the result must not depend on when the switch happens
+class DirectionOptimizingBFSTest {
+
+    @Test
+    void matchesPlainBfsOnEveryShape() {
+        List<Graph> graphs = List.of(
+                TestGraphs.scaleFree(30_000, 4, 81),      // Low diameter: takes bottom-up steps
+                TestGraphs.random(20_000, 100_000, 83),
+                TestGraphs.random(5_000, 3_000, 85),      // Many components
+                TestGraphs.grid(150, 150),
+                TestGraphs.grid(2000, 1));                // A chain
+        for (Graph graph : graphs) {
+            CompactGraph snapshot = graph.snapshot();
+            for (String source : new String[] {"n0", "n7", TestGraphs.name(graph.getNodeCount() - 1)}) {
+                int src = snapshot.idOf(source);
+                int[] expected = DirectionOptimizingBFS.topDownDistancesFrom(snapshot, src);
+                assertArrayEquals(expected, DirectionOptimizingBFS.distancesFrom(snapshot, src), source);
+            }
+        }
+    }
+
+    @Test
+    void topDownBaselineMatchesQueueBfsOverTheGraph() {
+        Graph graph = TestGraphs.random(3_000, 6_000, 87);
+        CompactGraph snapshot = graph.snapshot();
+        int[] dist = DirectionOptimizingBFS.topDownDistancesFrom(snapshot, snapshot.idOf("n0"));
+        Map<String, Integer> hops = TestGraphs.hops(graph, "n0");
+        for (int id = 0; id < snapshot.getNodeCount(); id++) {
+            assertEquals(hops.getOrDefault(snapshot.names[id], -1), dist[id], snapshot.names[id]);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Workers only see their own rows, yet the (position, rowIndex) keys must reproduce BFSRouter's FIFO tie-breaks,
+// so paths are compared for equality, not just length
+class DistributedBFSTest {
+    private static final int NODES = 400;
+
+    @Test
+    void pathsMatchSequentialBfs(@TempDir Path dir) throws IOException {
+        Random random = new Random(3);
+        CompactGraph graph = sparseGraph(3);
+        BFSRouter sequential = new BFSRouter(graph);
+        Path file = dir.resolve("random.graph");
+        GraphFile.write(graph, file);
+
+        for (int workers : new int[] {1, 3}) {
+            try (DistributedBFS distributed = new DistributedBFS(file, workers)) {
+                assertEquals(NODES, Arrays.stream(distributed.partitionSizes()).sum());
+                for (int q = 0; q < 100; q++) {
+                    String source = TestGraphs.name(random.nextInt(NODES));
+                    String destination = TestGraphs.name(random.nextInt(NODES));
+                    assertEquals(sequential.findPath(source, destination), distributed.findPath(source, destination),
+                            source + " -> " + destination + " with " + workers + " workers");
+                }
+                assertEquals(List.of("n5"), distributed.findPath("n5", "n5"));
+                assertNull(distributed.findPath("n5", "missing"));
+                assertNull(distributed.findPath("missing", "n5"));
+            }
+        }
+    }
+
+    @Test
+    void compactGraphIsSpilledAndRoutedTheSame() throws IOException {
+        CompactGraph graph = sparseGraph(5);
+        BFSRouter sequential = new BFSRouter(graph);
+        try (DistributedBFS distributed = new DistributedBFS(graph, 2)) {
+            DistributedBFS.Result result = distributed.route("n0", "n300");
+            assertEquals(sequential.findPath("n0", "n300"), result.path());
+            assertTrue(result.totalBytes() > 0);
+        }
+    }
+
+    // Helper: Sparse graph whose last ten nodes are isolated, so some queries have no path
+    private static CompactGraph sparseGraph(long seed) {
+        Graph graph = TestGraphs.random(NODES - 10, NODES, seed);
+        for (int i = NODES - 10; i < NODES; i++) {
+            graph.addNode(TestGraphs.name(i));
+        }
+        return graph.snapshot();
+    }
+}
@@ -0,0 +1,68 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The tree is repaired locally on every listener event; after each change it has to agree with a BFS from scratch
+class DynamicBFSTreeTest {
+
+    @Test
+    void repairsMatchFreshBfsUnderRandomChanges() {
+        int n = 200;
+        Random random = new Random(7);
+        Graph graph = TestGraphs.random(n, 2 * n, 7);
+        DynamicBFSTree tree = new DynamicBFSTree(graph, "n0");
+
+        for (int step = 0; step < 2000; step++) {
+            String a = TestGraphs.name(random.nextInt(n));
+            String b = TestGraphs.name(random.nextInt(n));
+            int op = random.nextInt(10);
+            if (op < 4 && graph.hasNode(a) && graph.hasNode(b) && !a.equals(b)) {
+                graph.addEdge(a, b);
+            } else if (op < 8 && graph.isConnected(a, b)) {
+                graph.removeEdge(a, b);
+            } else if (op == 8 && graph.hasNode(a) && !a.equals("n0")) {
+                graph.removeNode(a); // Cuts every tree edge of a at once
+            } else if (op == 9) {
+                graph.addNode(a);
+            }
+            assertAgreesWithBfs(graph, tree, step);
+        }
+    }
+
+    @Test
+    void deletingABridgeDisconnectsTheFarSide() {
+        Graph graph = TestGraphs.nodes(4);
+        graph.addEdge("n0", "n1");
+        graph.addEdge("n1", "n2");
+        graph.addEdge("n2", "n3");
+        DynamicBFSTree tree = new DynamicBFSTree(graph, "n0");
+        assertEquals(List.of("n0", "n1", "n2", "n3"), tree.getPath("n3"));
+
+        graph.removeEdge("n1", "n2");
+        assertEquals(-1, tree.getDistance("n2"));
+        assertEquals(-1, tree.getDistance("n3"));
+        assertNull(tree.getPath("n3"));
+
+        graph.addEdge("n0", "n3");
+        assertEquals(1, tree.getDistance("n3"));
+        assertEquals(2, tree.getDistance("n2"));
+    }
+
+    // Distances must be exact; parents may break ties differently from BFSRouter but must sit one level up
+    private static void assertAgreesWithBfs(Graph graph, DynamicBFSTree tree, int step) {
+        Map<String, Integer> expected = TestGraphs.hops(graph, "n0");
+        for (String node : graph.getAllNodes()) {
+            int distance = expected.getOrDefault(node, -1);
+            assertEquals(distance, tree.getDistance(node), "distance of " + node + " after step " + step);
+            String parent = tree.getParent(node);
+            if (distance > 0) {
+                assertTrue(graph.isConnected(parent, node), "parent edge of " + node + " after step " + step);
+                assertEquals(distance - 1, tree.getDistance(parent), "parent of " + node + " after step " + step);
+            } else {
+                assertNull(parent, "parent of " + node + " after step " + step);
+            }
+        }
+    }
+}
@@ -0,0 +1,145 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// The parallel, block-wise parse has to come out like reading the file line by line
+class EdgeListImporterTest {
+
+    @Test
+    void lineFormsAndSkippedLines(@TempDir Path dir) throws IOException {
+        String content = "# routers\r\n"
+                + "a,b\r\n"
+                + "\r\n"
+                + "   \t \n"
+                + "b\tc\n"
+                + "c  d  \r\n"
+                + "d,a\n"
+                + "b,a\n"          // Duplicate of line 2, other direction
+                + "a,b\n"          // Duplicate of line 2
+                + "e,e\n"          // Self-loop
+                + "lonely\n"
+                + "x,y,z\n"
+                + "f g h\n"
+                + " , g\n"
+                + "e, f";          // No newline at the end of the file
+        ImportResult result = importString(dir, content, 2, 1 << 20);
+
+        CompactGraph graph = result.graph();
+        assertArrayEquals(new String[] {"a", "b", "c", "d", "e", "f"}, graph.names);
+        assertEquals(Set.of("b", "d"), neighbors(graph, "a"));
+        assertEquals(Set.of("a", "c"), neighbors(graph, "b"));
+        assertEquals(Set.of("f"), neighbors(graph, "e"));
+        assertEquals(5, graph.getEdgeCount());
+        assertEquals(7, result.edgeLines()); // Duplicates included
+        assertEquals(5, result.errorCount());
+        assertEquals(List.of(10L, 11L, 12L, 13L, 14L),
+                result.errors().stream().map(ImportError::lineNumber).toList());
+        assertEquals("self-loop", result.errors().get(0).reason());
+        assertEquals("e,e", result.errors().get(0).line());
+    }
+
+    @Test
+    void blockAndSliceBoundariesMatchALineByLineParse(@TempDir Path dir) throws IOException {
+        Random random = new Random(71);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 150_000; i++) {
+            int a = random.nextInt(5000);
+            int b = random.nextInt(5000);
+            switch (random.nextInt(20)) {
+                case 0 -> content.append("n").append(a).append('\n').append('\n');
+                case 1 -> content.append("# comment ").append(a).append('\n');
+                case 2 -> content.append("n").append(a).append(",n").append(a).append("\r\n");
+                case 3 -> content.append("n").append(a).append('\t').append("n").append(b).append("\r\n");
+                default -> content.append("n").append(a).append(",n").append(b).append('\n');
+            }
+        }
+        Map<String, Set<String>> expected = new LinkedHashMap<>();
+        List<Long> expectedErrors = new ArrayList<>();
+        parseLineByLine(content.toString(), expected, expectedErrors);
+
+        // 256 KB blocks with 4 threads: several blocks, each cut into several slices
+        ImportResult result = importString(dir, content.toString(), 4, 256 << 10);
+        CompactGraph graph = result.graph();
+        assertArrayEquals(expected.keySet().toArray(new String[0]), graph.names);
+        for (Map.Entry<String, Set<String>> entry : expected.entrySet()) {
+            assertEquals(entry.getValue(), neighbors(graph, entry.getKey()), entry.getKey());
+        }
+        assertEquals(expectedErrors.size(), result.errorCount());
+        assertEquals(expectedErrors.subList(0, Math.min(expectedErrors.size(), EdgeListImporter.MAX_ERRORS)),
+                result.errors().stream().map(ImportError::lineNumber).toList());
+    }
+
+    @Test
+    void errorsAreCappedAndCounted(@TempDir Path dir) throws IOException {
+        StringBuilder content = new StringBuilder("a,b\n");
+        content.append("x".repeat(10_000)).append('\n');
+        for (int i = 0; i < 2500; i++) {
+            content.append("bad").append(i).append('\n');
+        }
+        ImportResult result = importString(dir, content.toString(), 3, 16 << 10);
+        assertEquals(2501, result.errorCount());
+        assertEquals(EdgeListImporter.MAX_ERRORS, result.errors().size());
+        assertEquals(2, result.errors().get(0).lineNumber());
+        assertEquals(EdgeListImporter.MAX_ERROR_TEXT + 3, result.errors().get(0).line().length());
+        assertEquals(EdgeListImporter.MAX_ERRORS + 1, result.errors().get(EdgeListImporter.MAX_ERRORS - 1).lineNumber());
+        assertEquals(1, result.graph().getEdgeCount());
+    }
+
+    @Test
+    void lineLongerThanABlockIsAnError(@TempDir Path dir) {
+        String content = "a,b\n" + "c,".repeat(100) + "d\n" + "e,f\n";
+        assertThrows(IOException.class, () -> importString(dir, content, 1, 64));
+    }
+
+    @Test
+    void tooManyEdgesForTheCsrAreRejected() {
+        assertThrows(IllegalArgumentException.class,
+                () -> CompactGraph.fromEdges(new String[0], new int[0], new int[0], CompactGraph.MAX_EDGES + 1));
+    }
+
+    private static ImportResult importString(Path dir, String content, int parallelism, int blockBytes)
+            throws IOException {
+        Path file = dir.resolve("edges.txt");
+        Files.write(file, content.getBytes(StandardCharsets.UTF_8));
+        try (EdgeListImporter importer = new EdgeListImporter(parallelism, blockBytes)) {
+            return importer.importFile(file);
+        }
+    }
+
+    private static Set<String> neighbors(CompactGraph graph, String node) {
+        int id = graph.idOf(node);
+        Set<String> result = new HashSet<>();
+        for (int e = graph.offsets[id]; e < graph.offsets[id + 1]; e++) {
+            result.add(graph.names[graph.targets[e]]);
+        }
+        return result;
+    }
+
+    // Helper: Reference parse with String.split, nodes in order of first appearance
+    private static void parseLineByLine(String content, Map<String, Set<String>> adjacency, List<Long> errors) {
+        String[] lines = content.split("\n", -1);
+        int count = content.endsWith("\n") ? lines.length - 1 : lines.length;
+        for (int i = 0; i < count; i++) {
+            String line = lines[i].strip();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.contains(",") ? line.split(",", -1) : line.split("[ \t]+");
+            if (parts.length != 2 || parts[0].isBlank() || parts[1].isBlank() || parts[0].strip().equals(parts[1].strip())) {
+                errors.add(i + 1L);
+                continue;
+            }
+            String a = parts[0].strip();
+            String b = parts[1].strip();
+            adjacency.computeIfAbsent(a, k -> new HashSet<>()).add(b);
+            adjacency.computeIfAbsent(b, k -> new HashSet<>()).add(a);
+        }
+    }
+}
@@ -0,0 +1,116 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Round trip and corruption checks of the mapped graph file format
+class GraphFileTest {
+    private static final int NODES = 300;
+    private static final int EDGES = 2 * NODES;
+
+    @Test
+    void mappedGraphRoutesLikeBfsRouter(@TempDir Path dir) throws IOException {
+        Random random = new Random(17);
+        Graph graph = TestGraphs.randomWeighted(NODES, EDGES, 5, 17);
+        CompactGraph snapshot = graph.snapshot();
+        Path file = dir.resolve("random.graph");
+        GraphFile.write(graph, file);
+
+        MappedGraph mapped = GraphFile.map(file);
+        mapped.verify();
+        assertEquals(snapshot.getNodeCount(), mapped.getNodeCount());
+        assertEquals(snapshot.getEdgeCount(), mapped.getEdgeCount());
+        assertTrue(mapped.isWeighted());
+        assertEquals(-1, mapped.idOf("missing"));
+        for (int id = 0; id < mapped.getNodeCount(); id++) {
+            assertEquals(id, mapped.idOf(mapped.nameOf(id)));
+        }
+
+        BFSRouter router = new BFSRouter(snapshot);
+        for (int q = 0; q < 200; q++) {
+            String source = TestGraphs.name(random.nextInt(NODES));
+            String destination = TestGraphs.name(random.nextInt(NODES));
+            assertEquals(router.findPath(source, destination), mapped.findPath(source, destination));
+        }
+
+        CompactGraph loaded = GraphFile.load(file);
+        assertArrayEquals(snapshot.offsets, loaded.offsets);
+        assertArrayEquals(snapshot.targets, loaded.targets);
+        assertArrayEquals(snapshot.weights, loaded.weights);
+        assertArrayEquals(snapshot.names, loaded.names);
+    }
+
+    @Test
+    void corruptTargetIsReportedNotRouted(@TempDir Path dir) throws IOException {
+        Graph graph = TestGraphs.randomWeighted(NODES, EDGES, 5, 19);
+        Path file = dir.resolve("corrupt.graph");
+        GraphFile.write(graph, file);
+        int n = graph.getNodeCount();
+        writeInt(file, 32 + 4L * (n + 1), n + 5); // First target, right after the header and offsets
+
+        MappedGraph mapped = GraphFile.map(file);
+        assertThrows(IOException.class, mapped::verify);
+        assertThrows(IOException.class, () -> GraphFile.load(file));
+        int owner = 0;
+        while (mapped.degree(owner) == 0) {
+            owner++;
+        }
+        String source = mapped.nameOf(owner); // Its row holds the corrupted target
+        assertThrows(UncheckedIOException.class, () -> mapped.findPath(source, source.equals("n0") ? "n1" : "n0"));
+    }
+
+    @Test
+    void corruptByNameIsReportedNotMissed(@TempDir Path dir) throws IOException {
+        Graph graph = TestGraphs.randomWeighted(NODES, EDGES, 5, 29);
+        Path file = dir.resolve("byname.graph");
+        GraphFile.write(graph, file);
+        int n = graph.getNodeCount();
+        long byName = 32 + 4L * (n + 1) + 4L * graph.snapshot().targets.length + 4L * (n + 1);
+
+        writeInt(file, byName + 4L * ((n - 1) / 2), n + 1); // Id out of range, hit by the first probe of idOf
+        MappedGraph outOfRange = GraphFile.map(file);
+        assertThrows(UncheckedIOException.class, () -> outOfRange.idOf("n0"));
+        assertThrows(IOException.class, outOfRange::verify);
+        assertThrows(IOException.class, () -> GraphFile.load(file));
+
+        GraphFile.write(graph, file);
+        int first = readInt(file, byName);
+        writeInt(file, byName, readInt(file, byName + 4));
+        writeInt(file, byName + 4, first); // A permutation, but out of name order
+        assertThrows(IOException.class, () -> GraphFile.map(file).verify());
+        assertThrows(IOException.class, () -> GraphFile.load(file));
+    }
+
+    @Test
+    void truncatedFileIsRejectedOnMap(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("truncated.graph");
+        GraphFile.write(TestGraphs.randomWeighted(NODES, EDGES, 5, 23), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IOException.class, () -> GraphFile.map(file));
+    }
+
+    private static void writeInt(Path file, long position, int value) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(value).flip(), position);
+        }
+    }
+
+    private static int readInt(Path file, long position) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+            channel.read(buffer, position);
+            return buffer.flip().getInt();
+        }
+    }
+}
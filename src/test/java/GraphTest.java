@@ -0,0 +1,51 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphTest {
+
+    @Test
+    void allNodesIsACopyThatSurvivesRemoval() {
+        Graph graph = TestGraphs.grid(4, 4);
+        Set<String> nodes = graph.getAllNodes();
+        for (String node : nodes) {
+            if (!node.equals("n0")) {
+                graph.removeNode(node);
+            }
+        }
+        assertEquals(16, nodes.size());
+        assertEquals(Set.of("n0"), graph.getAllNodes());
+        assertThrows(UnsupportedOperationException.class, () -> nodes.remove("n0"));
+    }
+
+    @Test
+    void neighborsCannotBreakSymmetry() {
+        Graph graph = TestGraphs.grid(2, 2);
+        assertThrows(UnsupportedOperationException.class, () -> graph.getNeighbors("n0").remove("n1"));
+        assertTrue(graph.isConnected("n1", "n0"));
+    }
+
+    @Test
+    void weightChangesReachListeners() {
+        Graph graph = TestGraphs.nodes(3);
+        List<String> events = new ArrayList<>();
+        graph.addListener(new GraphListener() {
+            @Override
+            public void edgeAdded(String from, String to) {
+                events.add("added " + from + "-" + to);
+            }
+
+            @Override
+            public void edgeWeightChanged(String from, String to, double weight) {
+                events.add("weight " + from + "-" + to + " " + weight);
+            }
+        });
+        graph.addEdge("n0", "n1", 4);
+        graph.addEdge("n0", "n1", 4);   // Unchanged: no event
+        graph.addEdge("n0", "n1", 1);   // Back to the default weight
+        graph.addEdge("n1", "n2", 1);   // New unit edge: no weight event
+        assertEquals(List.of("added n0-n1", "weight n0-n1 4.0", "weight n0-n1 1.0", "added n1-n2"), events);
+    }
+}
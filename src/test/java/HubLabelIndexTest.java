@@ -0,0 +1,100 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Labels answer queries without touching the graph, so a saved index must refuse any graph it was not built for
+class HubLabelIndexTest {
+    private static final int NODES = 200;
+
+    @Test
+    void savedLabelsAnswerLikeBfs(@TempDir Path dir) throws IOException {
+        CompactGraph graph = TestGraphs.scaleFree(NODES, 2, 31).snapshot();
+        Path file = dir.resolve("labels.hl");
+        try (HubLabelBuilder builder = new HubLabelBuilder(2)) {
+            builder.build(graph).write(file);
+        }
+        HubLabelIndex index = HubLabelIndex.load(file, graph);
+        BFSRouter router = new BFSRouter(graph);
+        Random random = new Random(31);
+        for (int q = 0; q < 300; q++) {
+            String source = TestGraphs.name(random.nextInt(NODES));
+            String destination = TestGraphs.name(random.nextInt(NODES));
+            List<String> expected = router.findPath(source, destination);
+            assertEquals(expected == null ? -1 : expected.size() - 1, index.distance(source, destination));
+            List<String> path = index.findPath(source, destination);
+            assertEquals(expected == null ? -1 : expected.size(), path == null ? -1 : path.size());
+        }
+    }
+
+    @Test
+    void labelsOfAnotherGraphAreRejected(@TempDir Path dir) throws IOException {
+        Graph graph = TestGraphs.random(NODES, 2 * NODES, 37);
+        Path file = dir.resolve("labels.hl");
+        try (HubLabelBuilder builder = new HubLabelBuilder(1)) {
+            builder.build(graph.snapshot()).write(file);
+        }
+
+        // Same node and edge counts, one edge moved
+        String[] edge = graph.getAllEdges().get(0);
+        graph.removeEdge(edge[0], edge[1]);
+        String other = graph.getAllNodes().stream()
+                .filter(node -> !node.equals(edge[0]) && !graph.isConnected(edge[0], node))
+                .findFirst().orElseThrow();
+        graph.addEdge(edge[0], other);
+        assertThrows(IOException.class, () -> HubLabelIndex.load(file, graph.snapshot()));
+
+        // Same topology, ids assigned in another order
+        graph.removeEdge(edge[0], other);
+        graph.addEdge(edge[0], edge[1]);
+        CompactGraph original = graph.snapshot();
+        assertDoesNotThrow(() -> HubLabelIndex.load(file, original));
+        assertThrows(IOException.class, () -> HubLabelIndex.load(file, reversedIds(original)));
+    }
+
+    @Test
+    void outOfRangeEntriesAreReportedAsCorrupt(@TempDir Path dir) throws IOException {
+        CompactGraph graph = TestGraphs.grid(10, 10).snapshot();
+        Path file = dir.resolve("labels.hl");
+        try (HubLabelBuilder builder = new HubLabelBuilder(1)) {
+            builder.build(graph).write(file);
+        }
+        int n = graph.getNodeCount();
+        long hubs = 32 + 4L * n + 4L * (n + 1);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN).putInt(n).flip(), hubs);
+        }
+        assertThrows(IOException.class, () -> HubLabelIndex.load(file, graph));
+    }
+
+    // Helper: The same graph with node ids in reverse order
+    private static CompactGraph reversedIds(CompactGraph graph) {
+        int n = graph.getNodeCount();
+        String[] names = new String[n];
+        for (int id = 0; id < n; id++) {
+            names[n - 1 - id] = graph.names[id];
+        }
+        int m = graph.getEdgeCount();
+        int[] from = new int[m];
+        int[] to = new int[m];
+        int count = 0;
+        for (int u = 0; u < n; u++) {
+            for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                int v = graph.targets[e];
+                if (u < v) {
+                    from[count] = n - 1 - u;
+                    to[count++] = n - 1 - v;
+                }
+            }
+        }
+        return CompactGraph.fromEdges(names, from, to, count);
+    }
+}
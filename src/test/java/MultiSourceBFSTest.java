@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Each source owns one bit of a 64-bit word, so batch sizes around 64 are where bits and batches can mix up
+class MultiSourceBFSTest {
+    private static final int NODES = 800;
+
+    @Test
+    void perSourceDistancesMatchSingleSourceBfs() {
+        Graph graph = TestGraphs.random(NODES, NODES, 79);
+        CompactGraph snapshot = graph.snapshot();
+        BFSRouter router = new BFSRouter(snapshot);
+        Random random = new Random(79);
+        try (MultiSourceBFS bfs = new MultiSourceBFS(3)) {
+            for (int count : new int[] {1, 63, 64, 65, 130}) {
+                int[] sources = new int[count];
+                for (int i = 0; i < count; i++) {
+                    sources[i] = random.nextInt(NODES);
+                }
+                if (count > 64) {
+                    sources[64] = sources[0]; // Same source in two batches, and in bit 0 of each
+                }
+
+                int[][] distances = new int[count][NODES];
+                for (int[] row : distances) {
+                    Arrays.fill(row, -1);
+                }
+                int[] calls = new int[count];
+                bfs.forEachDistance(snapshot, sources, (source, node, distance) -> {
+                    synchronized (distances) {
+                        // Duplicated sources report under the same id; fill the first copy still missing the node
+                        int index = firstMissing(sources, distances, source, node);
+                        assertTrue(index >= 0, "node " + node + " reported twice for source " + source);
+                        distances[index][node] = distance;
+                        calls[index]++;
+                    }
+                });
+
+                for (int i = 0; i < count; i++) {
+                    int[] expected = router.distancesFrom(snapshot.names[sources[i]]);
+                    assertArrayEquals(expected, distances[i], count + " sources, index " + i);
+                    assertEquals(Arrays.stream(expected).filter(d -> d >= 0).count(), calls[i]);
+                }
+
+                MultiSourceBFS.SourceStats[] stats = bfs.stats(snapshot, sources);
+                for (int i = 0; i < count; i++) {
+                    int[] expected = distances[i];
+                    assertEquals(Arrays.stream(expected).max().getAsInt(), stats[i].eccentricity());
+                    assertEquals(calls[i], stats[i].reached());
+                    assertEquals(Arrays.stream(expected).filter(d -> d > 0).asLongStream().sum(), stats[i].distanceSum());
+                }
+            }
+        }
+    }
+
+    @Test
+    void diameterOfAGrid() {
+        try (MultiSourceBFS bfs = new MultiSourceBFS(2)) {
+            assertEquals(9 + 6, bfs.diameter(TestGraphs.grid(10, 7).snapshot()));
+        }
+    }
+
+    private static int firstMissing(int[] sources, int[][] distances, int source, int node) {
+        for (int i = 0; i < sources.length; i++) {
+            if (sources[i] == source && distances[i][node] < 0) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Slices of a level race for the same nodes; the level joins must still leave BFSRouter's distances and a valid tree
+class ParallelBFSTest {
+    private static final int[] PARALLELISM = {1, 2, 4, 8};
+
+    @Test
+    void randomGraphMatchesSequentialRouter() {
+        assertMatchesSequential(TestGraphs.random(20_000, 60_000, 41).snapshot());
+    }
+
+    @Test
+    void scaleFreeGraphMatchesSequentialRouter() {
+        assertMatchesSequential(TestGraphs.scaleFree(20_000, 3, 43).snapshot());
+    }
+
+    @Test
+    void gridMatchesSequentialRouter() {
+        // Many narrow levels, where the random graphs have a few wide ones split across slices
+        assertMatchesSequential(TestGraphs.grid(300, 60).snapshot());
+    }
+
+    @Test
+    void unknownSourceGivesNull() {
+        try (ParallelBFS parallel = new ParallelBFS(2)) {
+            CompactGraph graph = TestGraphs.grid(3, 3).snapshot();
+            assertNull(parallel.distancesFrom(graph, "missing"));
+            assertNull(parallel.parentsFrom(graph, "missing"));
+        }
+    }
+
+    private static void assertMatchesSequential(CompactGraph graph) {
+        BFSRouter sequential = new BFSRouter(graph);
+        for (int parallelism : PARALLELISM) {
+            try (ParallelBFS parallel = new ParallelBFS(parallelism)) {
+                for (String source : new String[] {"n0", TestGraphs.name(graph.getNodeCount() / 2)}) {
+                    int[] expected = sequential.distancesFrom(source);
+                    int src = graph.idOf(source);
+                    ParallelBFS.Tree tree = parallel.traverse(graph, src);
+                    assertArrayEquals(expected, tree.distances(), source + " at parallelism " + parallelism);
+                    assertArrayEquals(expected, parallel.distancesFrom(graph, source));
+                    assertValidTree(graph, src, tree);
+                }
+            }
+        }
+    }
+
+    // Every reached node hangs off a neighbor one level closer to the source
+    private static void assertValidTree(CompactGraph graph, int src, ParallelBFS.Tree tree) {
+        int[] parents = tree.parents();
+        int[] distances = tree.distances();
+        assertEquals(src, parents[src]);
+        for (int v = 0; v < graph.getNodeCount(); v++) {
+            if (v == src) {
+                continue;
+            }
+            if (distances[v] < 0) {
+                assertEquals(-1, parents[v]);
+                continue;
+            }
+            int parent = parents[v];
+            assertEquals(distances[v] - 1, distances[parent], "parent level of " + graph.names[v]);
+            boolean adjacent = false;
+            for (int e = graph.offsets[parent]; e < graph.offsets[parent + 1] && !adjacent; e++) {
+                adjacent = graph.targets[e] == v;
+            }
+            assertTrue(adjacent, "parent edge of " + graph.names[v]);
+        }
+    }
+}
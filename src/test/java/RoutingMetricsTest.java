@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutingMetricsTest {
+
+    @Test
+    void histogramPercentilesStayWithinBucketPrecision() {
+        Histogram histogram = new Histogram();
+        Random random = new Random(73);
+        long[] values = new long[20_000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.exp(random.nextDouble() * 20);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        assertEquals(values.length, histogram.getCount());
+        for (double p : new double[] {1, 50, 90, 99, 99.9, 100}) {
+            long exact = values[(int) Math.ceil(values.length * p / 100) - 1];
+            long reported = histogram.percentile(p);
+            assertTrue(reported >= exact && reported <= exact + Math.max(1, exact / 16),
+                    "p" + p + ": exact " + exact + ", reported " + reported);
+        }
+        histogram.reset();
+        assertEquals(0, histogram.percentile(50));
+    }
+
+    @Test
+    void kernelsCountLevelsAndEdgesOnlyWhenMetered() {
+        CompactGraph graph = TestGraphs.grid(10, 10).snapshot();
+        BFSRouter router = new BFSRouter(graph);
+        BFSScratch scratch = BFSScratch.forThread(graph.getNodeCount());
+        router.findPath("n0", "n99");
+        assertEquals(0, scratch.levels);
+        assertEquals(0, scratch.edgesScanned);
+
+        RoutingMetrics metrics = new RoutingMetrics();
+        router.setMetrics(metrics);
+        router.findPath("n0", "n99");
+        assertEquals(19, scratch.levels); // Levels 0..18 are expanded before n99 is dequeued
+        assertTrue(scratch.edgesScanned > 0);
+        router.findPathBidirectional("n0", "n99");
+        assertEquals(2, metrics.getQueryCount());
+        assertTrue(metrics.getNodesVisitedP99() >= 100);
+        assertTrue(metrics.getFrontierSizeP99() >= 10);
+    }
+}
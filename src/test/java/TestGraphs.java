@@ -0,0 +1,114 @@
+import java.util.*;
+
+// Small seeded topologies shared by the tests; node names are "n0" .. "n{n-1}"
+final class TestGraphs {
+    private TestGraphs() {
+    }
+
+    // About `edges` random edges; self-loops and repeats are skipped, so some nodes may stay isolated
+    static Graph random(int n, int edges, long seed) {
+        Graph graph = nodes(n);
+        Random random = new Random(seed);
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if (from != to) {
+                graph.addEdge(name(from), name(to));
+            }
+        }
+        return graph;
+    }
+
+    // Like random, with integer weights in [1, maxWeight]
+    static Graph randomWeighted(int n, int edges, int maxWeight, long seed) {
+        Graph graph = nodes(n);
+        Random random = new Random(seed);
+        for (int i = 0; i < edges; i++) {
+            int from = random.nextInt(n);
+            int to = random.nextInt(n);
+            if (from != to) {
+                graph.addEdge(name(from), name(to), 1 + random.nextInt(maxWeight));
+            }
+        }
+        return graph;
+    }
+
+    // Preferential attachment: every new node links to up to m earlier nodes picked by degree
+    static Graph scaleFree(int n, int m, long seed) {
+        Graph graph = nodes(n);
+        Random random = new Random(seed);
+        int[] endpoints = new int[2 * n * m];
+        int count = 0;
+        for (int v = 1; v < n; v++) {
+            for (int k = 0; k < Math.min(m, v); k++) {
+                int u = count == 0 ? 0 : endpoints[random.nextInt(count)];
+                if (u != v && !graph.isConnected(name(u), name(v))) {
+                    graph.addEdge(name(u), name(v));
+                    endpoints[count++] = u;
+                    endpoints[count++] = v;
+                }
+            }
+        }
+        return graph;
+    }
+
+    // width x height 4-neighbor lattice, node y * width + x
+    static Graph grid(int width, int height) {
+        Graph graph = nodes(width * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = y * width + x;
+                if (x + 1 < width) {
+                    graph.addEdge(name(i), name(i + 1));
+                }
+                if (y + 1 < height) {
+                    graph.addEdge(name(i), name(i + width));
+                }
+            }
+        }
+        return graph;
+    }
+
+    static Graph nodes(int n) {
+        Graph graph = new Graph();
+        for (int i = 0; i < n; i++) {
+            graph.addNode(name(i));
+        }
+        return graph;
+    }
+
+    static String name(int i) {
+        return "n" + i;
+    }
+
+    // Helper: Hop distances from source by a plain queue BFS over Graph, the reference the engines are held to
+    static Map<String, Integer> hops(Graph graph, String source) {
+        Map<String, Integer> distance = new HashMap<>();
+        ArrayDeque<String> queue = new ArrayDeque<>();
+        distance.put(source, 0);
+        queue.add(source);
+        while (!queue.isEmpty()) {
+            String current = queue.poll();
+            for (String neighbor : graph.getNeighbors(current)) {
+                if (!distance.containsKey(neighbor)) {
+                    distance.put(neighbor, distance.get(current) + 1);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return distance;
+    }
+
+    // Helper: True if path runs from source to destination over existing edges
+    static boolean isPath(Graph graph, String source, String destination, List<String> path) {
+        if (path.isEmpty() || !path.get(0).equals(source) || !path.get(path.size() - 1).equals(destination)) {
+            return false;
+        }
+        for (int i = 1; i < path.size(); i++) {
+            if (!graph.isConnected(path.get(i - 1), path.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// A Graph receives the same mutations as the batches; each published version, whether still an overlay or
+// freshly compacted, must look exactly like it
+class VersionedGraphTest {
+    private static final int NAMES = 3000; // Enough added rows to pass the 1024-row compaction floor
+
+    @Test
+    void versionsMatchGraphAcrossCompactions() {
+        Random random = new Random(11);
+        Graph graph = TestGraphs.nodes(0);
+        VersionedGraph versioned = new VersionedGraph();
+        GraphVersion pinned = null;
+        Set<String> pinnedNodes = null;
+        int pinnedEdges = 0;
+
+        for (int round = 0; round < 60; round++) {
+            versioned.update(batch -> {
+                for (int i = 0; i < 400; i++) {
+                    String a = TestGraphs.name(random.nextInt(NAMES));
+                    String b = TestGraphs.name(random.nextInt(NAMES));
+                    int op = random.nextInt(10);
+                    if (op < 3) {
+                        assertEquals(!graph.hasNode(a), batch.addNode(a));
+                        graph.addNode(a);
+                    } else if (op < 4) {
+                        boolean exists = graph.hasNode(a);
+                        assertEquals(exists, batch.removeNode(a));
+                        if (exists) {
+                            graph.removeNode(a);
+                        }
+                    } else if (op < 8) {
+                        boolean applies = graph.hasNode(a) && graph.hasNode(b) && !a.equals(b)
+                                && !graph.isConnected(a, b);
+                        assertEquals(applies, batch.addEdge(a, b));
+                        if (applies) {
+                            graph.addEdge(a, b);
+                        }
+                    } else {
+                        boolean applies = graph.isConnected(a, b);
+                        assertEquals(applies, batch.removeEdge(a, b));
+                        if (applies) {
+                            graph.removeEdge(a, b);
+                        }
+                    }
+                }
+            });
+            GraphVersion version = versioned.current();
+            assertMatches(graph, version, random);
+            if (round == 10) {
+                pinned = version;
+                pinnedNodes = new HashSet<>(pinned.getAllNodes());
+                pinnedEdges = pinned.getEdgeCount();
+            }
+        }
+
+        assertTrue(versioned.getCompactionCount() > 0, "no compaction happened");
+        assertEquals(pinnedNodes, new HashSet<>(pinned.getAllNodes()));
+        assertEquals(pinnedEdges, pinned.getEdgeCount());
+    }
+
+    @Test
+    void failedBatchAcrossAChunkBoundaryPublishesNothing() {
+        VersionedGraph versioned = new VersionedGraph();
+        versioned.update(batch -> {
+            for (int i = 0; i < GraphVersion.PAGE_SIZE - 2; i++) {
+                batch.addNode("a" + i);
+            }
+        });
+        GraphVersion before = versioned.current();
+
+        assertThrows(IllegalStateException.class, () -> versioned.update(batch -> {
+            for (int i = 0; i < 5; i++) {
+                batch.addNode("lost" + i);
+            }
+            throw new IllegalStateException("abort");
+        }));
+        assertSame(before, versioned.current());
+        assertFalse(before.hasNode("lost0"));
+        assertFalse(before.hasNode("lost4"));
+
+        GraphVersion after = versioned.update(batch -> {
+            for (int i = 0; i < 5; i++) {
+                batch.addNode("kept" + i);
+            }
+            batch.addEdge("kept4", "a0");
+        });
+        assertEquals(GraphVersion.PAGE_SIZE + 3, after.getNodeCount());
+        assertFalse(after.hasNode("lost0"));
+        assertFalse(after.hasNode("lost4"));
+        assertEquals(List.of("kept4", "a0"), after.findPath("kept4", "a0"));
+        assertEquals(GraphVersion.PAGE_SIZE - 2, before.getNodeCount());
+        assertFalse(before.hasNode("kept4"));
+    }
+
+    private static void assertMatches(Graph graph, GraphVersion version, Random random) {
+        assertEquals(graph.getNodeCount(), version.getNodeCount());
+        assertEquals(graph.getAllEdges().size(), version.getEdgeCount());
+        assertEquals(graph.getAllNodes(), new HashSet<>(version.getAllNodes()));
+        for (String node : graph.getAllNodes()) {
+            assertEquals(graph.getNeighbors(node), new HashSet<>(version.getNeighbors(node)), "neighbors of " + node);
+        }
+        List<String> nodes = new ArrayList<>(graph.getAllNodes());
+        if (nodes.isEmpty()) {
+            return;
+        }
+        // Same tie-breaks as BFSRouter on the version's own CSR copy; same hop count as BFS on the Graph
+        BFSRouter fresh = new BFSRouter(version.toCompactGraph());
+        for (int q = 0; q < 50; q++) {
+            String source = nodes.get(random.nextInt(nodes.size()));
+            String destination = nodes.get(random.nextInt(nodes.size()));
+            List<String> path = version.findPath(source, destination);
+            assertEquals(fresh.findPath(source, destination), path);
+            int hops = TestGraphs.hops(graph, source).getOrDefault(destination, -1);
+            assertEquals(hops, path == null ? -1 : path.size() - 1);
+        }
+    }
+}